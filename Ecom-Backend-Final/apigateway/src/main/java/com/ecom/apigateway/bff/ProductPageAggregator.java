@@ -0,0 +1,199 @@
+package com.ecom.apigateway.bff;
+
+import com.ecom.apigateway.cache.CachedResponse;
+import com.ecom.apigateway.cache.ResponseCache;
+import com.ecom.apigateway.config.ResponseCacheProperties;
+import com.ecom.apigateway.filter.LoadTrackingFilter;
+import com.ecom.apigateway.util.IdentityHeaderSigner;
+import com.ecom.apigateway.util.VerifiedToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Builds the product page in one round trip: product, category list, related products and the caller's cart
+ * are fetched from the downstream services in parallel and merged into one JSON document. Each part has its own
+ * timeout; a part that fails or times out is left null and listed under "degraded" instead of failing the page.
+ * Only the product itself is required. The catalogue parts share the response cache with the productservice and
+ * categoryservice routes (same keys, TTLs and invalidation); the cart is per user and always fetched.
+ */
+@Component
+public class ProductPageAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPageAggregator.class);
+
+    private final WebClient webClient;
+    private final IdentityHeaderSigner identityHeaderSigner;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties responseCacheProperties;
+    private final Duration partTimeout;
+
+    public ProductPageAggregator(WebClient.Builder webClientBuilder,
+                                 ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                                 LoadTrackingFilter loadTracking,
+                                 IdentityHeaderSigner identityHeaderSigner,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 ResponseCache responseCache,
+                                 ResponseCacheProperties responseCacheProperties,
+                                 @Value("${bff.part-timeout:1s}") Duration partTimeout) {
+        this.webClient = webClientBuilder.clone().filter(loadTracking.loadBalanced(loadBalancer)).build();
+        this.identityHeaderSigner = identityHeaderSigner;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.responseCache = responseCache;
+        this.responseCacheProperties = responseCacheProperties;
+        this.partTimeout = partTimeout;
+    }
+
+    /**
+     * @param categoryHint the product's category if the caller already knows it; lets related products be fetched
+     *                     in parallel with the product instead of after it
+     */
+    public Mono<PageResult> productPage(long productId, String categoryHint, VerifiedToken token) {
+        Mono<Part> product = fetch("product", "productservice", token,
+                "http://PRODUCTSERVICE/products/{id}", productId).cache();
+        Mono<Part> categories = fetch("categories", "categoryservice", token, "http://CATEGORYSERVICE/categories");
+        Mono<Part> cart = fetch("cart", null, token, "http://CARTSERVICE/cart/{username}", token.getSubject());
+        Mono<Part> related = categoryHint != null && !categoryHint.isBlank()
+                ? relatedProducts(categoryHint, token)
+                : product.flatMap(p -> {
+                    String category = p.body != null ? p.body.path("category").asText("") : "";
+                    return category.isEmpty() ? Mono.just(Part.missing("relatedProducts")) : relatedProducts(category, token);
+                });
+
+        return Mono.zip(product, categories, related, cart).map(parts -> {
+            Part productPart = parts.getT1();
+            if (productPart.notFound) {
+                return new PageResult(HttpStatus.NOT_FOUND, null);
+            }
+            if (productPart.body == null) {
+                return new PageResult(HttpStatus.GATEWAY_TIMEOUT, null);
+            }
+            ObjectNode page = objectMapper.createObjectNode();
+            ArrayNode degraded = objectMapper.createArrayNode();
+            for (Part part : new Part[]{productPart, parts.getT2(), parts.getT3(), parts.getT4()}) {
+                page.set(part.name, part.body);
+                if (part.body == null) {
+                    degraded.add(part.name);
+                }
+            }
+            page.set("degraded", degraded);
+            return new PageResult(HttpStatus.OK, page);
+        });
+    }
+
+    private Mono<Part> relatedProducts(String category, VerifiedToken token) {
+        return fetch("relatedProducts", "categoryservice", token,
+                "http://CATEGORYSERVICE/categories/{name}/products", category);
+    }
+
+    /**
+     * @param cacheRoute the route whose response cache holds this part, or null to always fetch it
+     */
+    private Mono<Part> fetch(String name, String cacheRoute, VerifiedToken token, String uriTemplate,
+                             Object... uriVariables) {
+        URI uri = UriComponentsBuilder.fromUriString(uriTemplate).buildAndExpand(uriVariables).encode().toUri();
+        Duration ttl = cacheRoute != null ? responseCacheProperties.ttlFor(cacheRoute) : null;
+        // The key a routed GET for the same path would use, so either side can fill the entry for the other
+        String cacheKey = ttl != null
+                ? ResponseCache.keyOf(HttpMethod.GET.name(), uri.getRawPath(), uri.getRawQuery()) : null;
+        CachedResponse cached = cacheKey != null ? responseCache.get(cacheKey) : null;
+        if (cached != null) {
+            responseCache.recordBytesSaved(cacheRoute, "upstream", cached.getBody().length);
+            return Mono.fromCallable(() -> new Part(name, objectMapper.readTree(cached.getBody()), false))
+                    .onErrorResume(IOException.class, e -> Mono.just(Part.missing(name)));
+        }
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> identityHeaderSigner.applyTo(headers, token))
+                .retrieve()
+                .toEntity(byte[].class)
+                .timeout(partTimeout)
+                .map(response -> {
+                    byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+                    if (cacheKey != null) {
+                        cache(cacheKey, cacheRoute, ttl, response, body);
+                    }
+                    try {
+                        return new Part(name, objectMapper.readTree(body), false);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Unreadable " + name + " response", e);
+                    }
+                })
+                .onErrorResume(e -> {
+                    boolean notFound = e instanceof WebClientResponseException.NotFound;
+                    if (!notFound) {
+                        log.warn("Product page part '{}' degraded: {}", name, e.toString());
+                        meterRegistry.counter("gateway.bff.degraded", "part", name).increment();
+                    }
+                    return Mono.just(new Part(name, null, notFound));
+                })
+                .defaultIfEmpty(Part.missing(name));
+    }
+
+    // Same rules as ResponseCacheFilter: 200s only, within the entry size limit
+    private void cache(String key, String routeId, Duration ttl, ResponseEntity<byte[]> response, byte[] body) {
+        if (response.getStatusCode() == HttpStatus.OK
+                && body.length <= responseCacheProperties.getMaxEntrySize().toBytes()) {
+            responseCache.put(key, new CachedResponse(routeId, body, response.getHeaders().getContentType(),
+                    ResponseCache.etagOf(body), ttl.toNanos()));
+        }
+    }
+
+    public static final class PageResult {
+
+        private final HttpStatus status;
+        private final ObjectNode body;
+
+        private PageResult(HttpStatus status, ObjectNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        public ObjectNode getBody() {
+            return body;
+        }
+    }
+
+    private static final class Part {
+
+        private final String name;
+        private final JsonNode body;
+        private final boolean notFound;
+
+        private Part(String name, JsonNode body, boolean notFound) {
+            this.name = name;
+            this.body = body;
+            this.notFound = notFound;
+        }
+
+        private static Part missing(String name) {
+            return new Part(name, null, false);
+        }
+    }
+}
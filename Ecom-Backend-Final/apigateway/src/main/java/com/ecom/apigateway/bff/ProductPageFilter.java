@@ -0,0 +1,80 @@
+package com.ecom.apigateway.bff;
+
+import com.ecom.apigateway.cache.JwtTokenCache;
+import com.ecom.apigateway.filter.FilterOrder;
+import com.ecom.apigateway.util.VerifiedToken;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves GET /bff/product-page/{id} at the end of the "bff" route: product, categories, related products and the
+ * caller's cart in one response. Being a route, the page passes the same JWT, rate-limit, concurrency-limit and
+ * route-metrics filters as routed requests; it never calls further down the chain (the route's URI is no://op).
+ * Pass {@code category} when known so related products are fetched in parallel with the product.
+ */
+@Component
+public class ProductPageFilter implements GatewayFilter, Ordered {
+
+    private final JwtTokenCache jwtTokenCache;
+    private final ProductPageAggregator productPageAggregator;
+    private final ObjectMapper objectMapper;
+
+    public ProductPageFilter(JwtTokenCache jwtTokenCache, ProductPageAggregator productPageAggregator,
+                             ObjectMapper objectMapper) {
+        this.jwtTokenCache = jwtTokenCache;
+        this.productPageAggregator = productPageAggregator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        long productId;
+        try {
+            productId = Long.parseLong(ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id"));
+        } catch (NumberFormatException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return response.setComplete();
+        }
+        // Already verified by the JWT filter; this is a cache hit that recovers the caller's claims
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        VerifiedToken token = authHeader != null && authHeader.startsWith("Bearer ")
+                ? jwtTokenCache.verify(authHeader.substring(7)) : null;
+        if (token == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return response.setComplete();
+        }
+        String category = exchange.getRequest().getQueryParams().getFirst("category");
+        return productPageAggregator.productPage(productId, category, token).flatMap(page -> {
+            response.setStatusCode(page.getStatus());
+            if (page.getBody() == null) {
+                return response.setComplete();
+            }
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(page.getBody());
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.PRODUCT_PAGE;
+    }
+}
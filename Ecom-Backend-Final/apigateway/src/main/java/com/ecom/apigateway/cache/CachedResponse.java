@@ -0,0 +1,43 @@
+package com.ecom.apigateway.cache;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A cached 200 response body with the ETag computed from its bytes.
+ */
+public final class CachedResponse {
+
+    private final String routeId;
+    private final byte[] body;
+    private final MediaType contentType;
+    private final String etag;
+    private final long ttlNanos;
+
+    public CachedResponse(String routeId, byte[] body, MediaType contentType, String etag, long ttlNanos) {
+        this.routeId = routeId;
+        this.body = body;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.ttlNanos = ttlNanos;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getTtlNanos() {
+        return ttlNanos;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecom.apigateway.cache;
+
+import com.ecom.apigateway.revocation.TokenRevocationList;
+import com.ecom.apigateway.util.JwtUtil;
+import com.ecom.apigateway.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified JWTs keyed by a SHA-256 digest of the raw token.
+ * Entries live for at most {@code jwt.cache.ttl-seconds} and never past the token's own exp.
+ * Only successfully verified tokens are cached; invalid tokens always go through a full parse.
+ * Revocation is checked on every call, cached or not, so a revoked token is rejected immediately.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtTokenCache(JwtUtil jwtUtil, TokenRevocationList revocationList,
+                         @Value("${jwt.cache.max-size:10000}") long maxSize,
+                         @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the verified token, or null if the token is malformed, badly signed, expired or revoked.
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return revocationList.isRevoked(cached.getTokenId()) ? null : cached;
+            }
+            cache.invalidate(key);
+            return null;
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (Exception e) {
+            return null;
+        }
+        if (verified.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        cache.put(key, verified);
+        return revocationList.isRevoked(verified.getTokenId()) ? null : verified;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Expire at the configured TTL or at the token's exp, whichever comes first
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long ttlNanos;
+
+        private TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.getExpiresAtMillis() - System.currentTimeMillis();
+            if (remainingMillis <= 0) {
+                return 0;
+            }
+            return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecom.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Exposes the verified-token cache counters at /actuator/jwtcache
+@Component
+@Endpoint(id = "jwtcache")
+public class JwtTokenCacheEndpoint {
+
+    private final JwtTokenCache jwtTokenCache;
+
+    public JwtTokenCacheEndpoint(JwtTokenCache jwtTokenCache) {
+        this.jwtTokenCache = jwtTokenCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = jwtTokenCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", jwtTokenCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("evictions", stats.evictionCount());
+        body.put("hitRatio", stats.hitRate());
+        return body;
+    }
+}
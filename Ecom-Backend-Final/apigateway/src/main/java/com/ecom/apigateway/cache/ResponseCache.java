@@ -0,0 +1,95 @@
+package com.ecom.apigateway.cache;
+
+import com.ecom.apigateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Size-bounded store for cached catalog responses. Entries expire after their route's TTL
+ * and are dropped by route when catalog change events arrive from Kafka.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final Cache<String, CachedResponse> cache;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.getBody().length)
+                .expireAfter(new RouteTtlExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponseCache");
+        meterRegistry.gauge("gateway.response.cache.hit.ratio", cache, c -> c.stats().hitRate());
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public void invalidateRoutes(Set<String> routeIds) {
+        cache.asMap().values().removeIf(entry -> routeIds.contains(entry.getRouteId()));
+        log.debug("Invalidated cached responses for routes {}", routeIds);
+    }
+
+    /**
+     * Records body bytes that did not have to travel: fetched from the backend on a hit
+     * (source=upstream) or sent to the client on a 304 (source=not-modified).
+     */
+    public void recordBytesSaved(String routeId, String source, long bytes) {
+        meterRegistry.counter("gateway.response.cache.bytes.saved", "route", routeId, "source", source)
+                .increment(bytes);
+    }
+
+    public static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String keyOf(String method, String rawPath, String rawQuery) {
+        String key = method + " " + rawPath;
+        return rawQuery != null ? key + "?" + rawQuery : key;
+    }
+
+    private static final class RouteTtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.getTtlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.getTtlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
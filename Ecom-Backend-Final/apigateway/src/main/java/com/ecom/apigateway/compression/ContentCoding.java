@@ -0,0 +1,109 @@
+package com.ecom.apigateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content codings the gateway can produce, in order of preference when the client weighs them equally.
+ */
+public enum ContentCoding {
+
+    BROTLI("br") {
+        @Override
+        public byte[] encode(byte[] input, int level) {
+            try {
+                return Encoder.compress(input, new Encoder.Parameters().setQuality(level));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        public byte[] encode(byte[] input, int level) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                gzip.write(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    };
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public abstract byte[] encode(byte[] input, int level);
+
+    /** True when the brotli native library loaded on this platform (it is not built for every libc/arch). */
+    public static boolean brotliAvailable() {
+        return Brotli4jLoader.isAvailable();
+    }
+
+    /**
+     * Picks the coding with the highest q-value in an Accept-Encoding header, preferring brotli on ties.
+     * Returns null when the client accepts none of them (including "identity" only or a missing header).
+     */
+    public static ContentCoding negotiate(String acceptEncoding, boolean brotli) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        ContentCoding best = null;
+        double bestQ = 0;
+        for (ContentCoding coding : values()) {
+            if (coding == BROTLI && !brotli) {
+                continue;
+            }
+            double q = qValue(acceptEncoding, coding.token);
+            if (q > bestQ) {
+                best = coding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static double qValue(String acceptEncoding, String token) {
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim();
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(token)) {
+                return q;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecom.apigateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit modelled on TCP Vegas (as in Netflix's concurrency-limits). The lowest RTT seen is
+ * taken as the no-load latency; limit x (1 - noLoadRtt / rtt) then estimates how many requests are queued
+ * downstream. The limit grows while that queue is small and shrinks once it exceeds a few requests, so it settles
+ * just above the backend's real capacity.
+ */
+public final class VegasLimiter {
+
+    /** Re-measure the no-load RTT every PROBE_MULTIPLIER x limit samples, in case the baseline itself moved. */
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private long noLoadRttNanos;
+    private long samplesSinceProbe;
+
+    public VegasLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Completed normally: feeds the RTT sample into the limit. */
+    public void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtCompletion);
+    }
+
+    /** Timed out or overloaded downstream: back off. */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            setLimit(limit - log10(limit));
+        }
+    }
+
+    /** Cancelled by the client or otherwise not representative: release without a sample. */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtCompletion) {
+        if (++samplesSinceProbe >= (long) PROBE_MULTIPLIER * limit) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        // Not enough traffic to tell whether a higher limit is safe
+        if (inFlightAtCompletion * 2 < limit) {
+            return;
+        }
+
+        int current = limit;
+        double queued = Math.ceil(current * (1 - (double) noLoadRttNanos / rttNanos));
+        int threshold = log10(current);
+        if (queued <= threshold) {
+            setLimit(current + 6 * threshold);
+        } else if (queued < 3 * threshold) {
+            setLimit(current + threshold);
+        } else if (queued > 6 * threshold) {
+            setLimit(current - threshold);
+        }
+    }
+
+    private void setLimit(int newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private static int log10(int value) {
+        return Math.max(1, (int) Math.log10(value));
+    }
+}
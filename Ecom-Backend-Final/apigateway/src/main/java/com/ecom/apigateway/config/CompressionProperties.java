@@ -0,0 +1,89 @@
+package com.ecom.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * gateway.compression.* settings. Responses smaller than {@code min-size} or with a content type outside
+ * {@code mime-types} are sent as-is; bodies of at least {@code offload-size} are compressed off the event loop.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+    private DataSize minSize = DataSize.ofKilobytes(1);
+    private DataSize offloadSize = DataSize.ofKilobytes(64);
+    private List<MediaType> mimeTypes = new ArrayList<>(List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_PROBLEM_JSON, MediaType.APPLICATION_XML,
+            MediaType.parseMediaType("text/*")));
+    private int gzipLevel = 6;
+    /** Falls back to gzip when the native brotli library cannot be loaded on this platform. */
+    private boolean brotliEnabled = true;
+    private int brotliQuality = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(DataSize minSize) {
+        this.minSize = minSize;
+    }
+
+    public DataSize getOffloadSize() {
+        return offloadSize;
+    }
+
+    public void setOffloadSize(DataSize offloadSize) {
+        this.offloadSize = offloadSize;
+    }
+
+    public List<MediaType> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    public void setMimeTypes(List<MediaType> mimeTypes) {
+        this.mimeTypes = mimeTypes;
+    }
+
+    public int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    public void setGzipLevel(int gzipLevel) {
+        this.gzipLevel = gzipLevel;
+    }
+
+    public boolean isBrotliEnabled() {
+        return brotliEnabled;
+    }
+
+    public void setBrotliEnabled(boolean brotliEnabled) {
+        this.brotliEnabled = brotliEnabled;
+    }
+
+    public int getBrotliQuality() {
+        return brotliQuality;
+    }
+
+    public void setBrotliQuality(int brotliQuality) {
+        this.brotliQuality = brotliQuality;
+    }
+
+    public boolean isCompressible(MediaType contentType) {
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.isCompatibleWith(contentType));
+    }
+}
@@ -1,11 +1,18 @@
 package com.ecom.apigateway.config;
 
+import com.ecom.apigateway.bff.ProductPageFilter;
+import com.ecom.apigateway.filter.ConcurrencyLimitFilter;
+import com.ecom.apigateway.filter.HedgingFilter;
 import com.ecom.apigateway.filter.JwtAuthenticationFilter;
+import com.ecom.apigateway.filter.RateLimitFilter;
+import com.ecom.apigateway.filter.RequestCoalescingFilter;
+import com.ecom.apigateway.filter.ResponseCacheFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 
 @Configuration
 public class GatewayConfig {
@@ -13,45 +20,98 @@ public class GatewayConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private RequestCoalescingFilter requestCoalescingFilter;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private HedgingFilter hedgingFilter;
+
+    @Autowired
+    private ProductPageFilter productPageFilter;
+
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
                 // Auth Service - Public endpoints (no JWT required)
                 .route("authservice", r -> r
                         .path("/auth/**")
-                        .filters(f -> f.stripPrefix(1))
+                        .filters(f -> f.stripPrefix(1)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter))
                         .uri("lb://AUTHSERVICE"))
 
                 // Product Service - Protected (JWT required)
                 .route("productservice", r -> r
                         .path("/products/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(responseCacheFilter)
+                                .filter(requestCoalescingFilter)
+                                .filter(concurrencyLimitFilter)
+                                .filter(hedgingFilter))
                         .uri("lb://PRODUCTSERVICE"))
 
                 // Cart Service - Protected (JWT required)
                 .route("cartservice", r -> r
                         .path("/cart/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter))
                         .uri("lb://CARTSERVICE"))
 
                 // Order Service - Protected (JWT required)
                 .route("orderservice", r -> r
                         .path("/orders/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter))
                         .uri("lb://ORDERSERVICE"))
 
                 // Payment Service - Protected (JWT required)
                 .route("paymentservice", r -> r
                         .path("/payments/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter))
                         .uri("lb://PAYMENTSERVICE"))
 
                 // Category Service - Protected (JWT required)
                 .route("categoryservice", r -> r
                         .path("/categories/**")
-                        .filters(f -> f.filter(jwtAuthenticationFilter))
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(responseCacheFilter)
+                                .filter(requestCoalescingFilter)
+                                .filter(concurrencyLimitFilter)
+                                .filter(hedgingFilter))
                         .uri("lb://CATEGORYSERVICE"))
 
+                // Notification Service - Protected (JWT required)
+                .route("notificationservice", r -> r
+                        .path("/notifications/**")
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter))
+                        .uri("lb://NOTIFICATIONSERVICE"))
+
+                // Product page aggregate - Protected (JWT required), answered by the gateway itself
+                .route("bff", r -> r
+                        .path("/bff/product-page/{id}").and().method(HttpMethod.GET)
+                        .filters(f -> f.filter(jwtAuthenticationFilter)
+                                .filter(rateLimitFilter)
+                                .filter(concurrencyLimitFilter)
+                                .filter(productPageFilter))
+                        .uri("no://op"))
+
                 .build();
     }
 }
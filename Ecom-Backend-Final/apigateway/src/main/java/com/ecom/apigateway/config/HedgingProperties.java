@@ -0,0 +1,73 @@
+package com.ecom.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * gateway.hedging.* settings. Hedging is opt-in: only GETs on routes listed under {@code routes} are hedged,
+ * e.g. gateway.hedging.routes.productservice.percentile=95 and .budget-percent=10
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+    private Map<String, Policy> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Policy> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Policy> routes) {
+        this.routes = routes;
+    }
+
+    public Policy policyFor(String routeId) {
+        return enabled ? routes.get(routeId) : null;
+    }
+
+    public static class Policy {
+
+        /** Hedge delay while too few latencies have been observed, or always when percentile is 0. */
+        private Duration delay = Duration.ofMillis(100);
+        private int percentile = 95;
+        /** Hedges may add at most this percentage of extra upstream requests. */
+        private double budgetPercent = 10;
+
+        public Duration getDelay() {
+            return delay;
+        }
+
+        public void setDelay(Duration delay) {
+            this.delay = delay;
+        }
+
+        public int getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(int percentile) {
+            this.percentile = percentile;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecom.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * gateway.rate-limit.* settings. Each route listed under {@code routes} gets a token bucket per key,
+ * e.g. gateway.rate-limit.routes.orderservice.capacity=20 and .refill-per-second=5.
+ * Routes without JWT authentication must use key=ip, since X-User-Name is only trusted after the JWT filter.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType { USER, IP }
+
+    private boolean enabled = true;
+    private long maxTrackedKeys = 100_000;
+    private Map<String, Limit> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(long maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public Limit limitFor(String routeId) {
+        return enabled ? routes.get(routeId) : null;
+    }
+
+    public static class Limit {
+
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+        private KeyType key = KeyType.USER;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+    }
+}
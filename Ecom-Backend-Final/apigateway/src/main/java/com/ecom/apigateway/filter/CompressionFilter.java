@@ -0,0 +1,183 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.compression.ContentCoding;
+import com.ecom.apigateway.config.CompressionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses routed responses with brotli or gzip, whichever the client's Accept-Encoding prefers. Only bodies of
+ * an allowlisted content type and at least gateway.compression.min-size are compressed; large bodies are encoded
+ * on a separate scheduler so the Netty event loop keeps serving other connections meanwhile.
+ * <p>
+ * Runs right after route metrics, so its response decorator is the one closest to the client: cached responses are
+ * stored uncompressed and compressed per request, and the upstream is always asked for an identity body.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionFilter.class);
+    private static final Set<Integer> NO_BODY_STATUSES = Set.of(HttpStatus.NO_CONTENT.value(),
+            HttpStatus.PARTIAL_CONTENT.value(), HttpStatus.NOT_MODIFIED.value());
+
+    private final CompressionProperties properties;
+    private final boolean brotli;
+    private final Scheduler scheduler;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Meter.MeterProvider<DistributionSummary> ratio;
+    private final Meter.MeterProvider<Timer> cpuTime;
+    private final Meter.MeterProvider<Counter> bytes;
+
+    public CompressionFilter(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.brotli = properties.isBrotliEnabled() && ContentCoding.brotliAvailable();
+        if (properties.isBrotliEnabled() && !brotli) {
+            log.warn("Brotli native library unavailable on this platform, compressing with gzip only");
+        }
+        this.scheduler = Schedulers.newParallel("gateway-compression",
+                Runtime.getRuntime().availableProcessors(), true);
+        this.ratio = DistributionSummary.builder("gateway.compression.ratio")
+                .description("Uncompressed size divided by compressed size")
+                .publishPercentiles(0.5, 0.95)
+                .withRegistry(meterRegistry);
+        this.cpuTime = Timer.builder("gateway.compression.cpu")
+                .description("CPU time spent compressing one response body")
+                .publishPercentiles(0.5, 0.99)
+                .withRegistry(meterRegistry);
+        this.bytes = Counter.builder("gateway.compression.bytes")
+                .description("Response bytes before (in) and after (out) compression")
+                .baseUnit("bytes")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (route == null || !properties.isEnabled() || request.getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        ContentCoding coding = ContentCoding.negotiate(
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), brotli);
+        ServerHttpResponseDecorator compressing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getHeaders();
+                if (!isCompressible(this, headers)) {
+                    return super.writeWith(body);
+                }
+                if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                long length = headers.getContentLength();
+                if (coding == null || (length >= 0 && length < properties.getMinSize().toBytes())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body))
+                        .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                        .flatMap(joined -> {
+                            byte[] original = new byte[joined.readableByteCount()];
+                            joined.read(original);
+                            DataBufferUtils.release(joined);
+                            if (original.length < properties.getMinSize().toBytes()) {
+                                return write(original);
+                            }
+                            return compress(original, coding, routeId).flatMap(compressed -> {
+                                headers.set(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+                                String etag = headers.getETag();
+                                if (etag != null && !etag.startsWith("W/")) {
+                                    headers.setETag("W/" + etag);
+                                }
+                                return write(compressed);
+                            });
+                        });
+            }
+
+            private Mono<Void> write(byte[] bytes) {
+                getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                getHeaders().setContentLength(bytes.length);
+                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            }
+        };
+
+        // The gateway owns compression: upstream bodies are cached and inspected, so always fetch them as identity
+        ServerHttpRequest identityRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        return chain.filter(exchange.mutate().request(identityRequest).response(compressing).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.COMPRESSION;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private boolean isCompressible(ServerHttpResponseDecorator response, HttpHeaders headers) {
+        HttpStatusCode status = response.getStatusCode();
+        return (status == null || !NO_BODY_STATUSES.contains(status.value()))
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && !headers.containsKey(HttpHeaders.CONTENT_RANGE)
+                && properties.isCompressible(headers.getContentType());
+    }
+
+    private Mono<byte[]> compress(byte[] original, ContentCoding coding, String routeId) {
+        if (original.length < properties.getOffloadSize().toBytes()) {
+            return Mono.fromCallable(() -> encode(original, coding, routeId, "event-loop"));
+        }
+        return Mono.fromCallable(() -> encode(original, coding, routeId, "offloaded")).subscribeOn(scheduler);
+    }
+
+    private byte[] encode(byte[] original, ContentCoding coding, String routeId, String thread) {
+        boolean cpuClock = threadMXBean.isCurrentThreadCpuTimeSupported();
+        long start = cpuClock ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
+        int level = coding == ContentCoding.BROTLI ? properties.getBrotliQuality() : properties.getGzipLevel();
+        byte[] compressed = coding.encode(original, level);
+        long elapsed = (cpuClock ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+
+        Tags tags = Tags.of("route", routeId, "encoding", coding.getToken());
+        cpuTime.withTags(tags.and("thread", thread)).record(elapsed, TimeUnit.NANOSECONDS);
+        ratio.withTags(tags).record((double) original.length / Math.max(1, compressed.length));
+        bytes.withTags(tags.and("direction", "in")).increment(original.length);
+        bytes.withTags(tags.and("direction", "out")).increment(compressed.length);
+        return compressed;
+    }
+}
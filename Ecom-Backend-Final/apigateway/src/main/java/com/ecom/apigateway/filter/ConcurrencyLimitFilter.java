@@ -0,0 +1,122 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.concurrency.VegasLimiter;
+import com.ecom.apigateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Load shedding in front of the downstream services. Each route learns its safe number of in-flight requests
+ * from latency ({@link VegasLimiter}); requests over the limit are rejected immediately with 503 instead of
+ * queueing until downstream thread and connection pools are exhausted. Runs after the response cache and
+ * coalescing, so only requests that actually go upstream count; a hedge is a second upstream request and takes a
+ * slot of its own through {@link #limit}.
+ */
+@Component
+public class ConcurrencyLimitFilter implements GatewayFilter, Ordered {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, VegasLimiter> limiters = new ConcurrentHashMap<>();
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.concurrency.in.flight", totalInFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String routeId = route.getId();
+        return limit(routeId, exchange, chain.filter(exchange), reason -> shed(exchange, routeId, reason));
+    }
+
+    /**
+     * Runs {@code request} in one of the route's in-flight slots, released however it ends; if the route or the
+     * gateway is at its limit, returns {@code rejected} for the reason ("route" or "gateway") instead.
+     * The request's latency and the status it leaves on {@code exchange}'s response feed the route's limit.
+     */
+    public <T> Mono<T> limit(String routeId, ServerWebExchange exchange, Mono<T> request,
+                             Function<String, Mono<T>> rejected) {
+        if (!properties.isEnabled()) {
+            return request;
+        }
+        return Mono.defer(() -> {
+            boolean priority = properties.getPriorityRoutes().contains(routeId);
+            int globalLimit = priority ? properties.getMaxInFlight()
+                    : (int) (properties.getMaxInFlight() * properties.getLowPriorityShare());
+            if (totalInFlight.incrementAndGet() > globalLimit) {
+                totalInFlight.decrementAndGet();
+                return rejected.apply("gateway");
+            }
+            VegasLimiter limiter = limiters.computeIfAbsent(routeId, this::newLimiter);
+            if (!limiter.tryAcquire()) {
+                totalInFlight.decrementAndGet();
+                return rejected.apply("route");
+            }
+
+            long start = System.nanoTime();
+            return request.doFinally(signal -> {
+                totalInFlight.decrementAndGet();
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (signal == SignalType.CANCEL) {
+                    limiter.onIgnored();
+                } else if (signal == SignalType.ON_ERROR || isOverloaded(status)) {
+                    limiter.onDropped();
+                } else {
+                    limiter.onSuccess(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.CONCURRENCY_LIMIT;
+    }
+
+    private VegasLimiter newLimiter(String routeId) {
+        VegasLimiter limiter = new VegasLimiter(
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit());
+        Gauge.builder("gateway.concurrency.limit", limiter, VegasLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String routeId, String reason) {
+        meterRegistry.counter("gateway.concurrency.rejected", "route", routeId, "reason", reason).increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return response.setComplete();
+    }
+
+    private static boolean isOverloaded(HttpStatusCode status) {
+        return status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecom.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+
+/**
+ * Orders of the gateway's own route filters. Filters that decorate the response must run
+ * before NettyWriteResponseFilter so it writes through the decorated response.
+ */
+public final class FilterOrder {
+
+    public static final int ROUTE_METRICS = Ordered.HIGHEST_PRECEDENCE;
+    public static final int COMPRESSION = Ordered.HIGHEST_PRECEDENCE + 1;
+    public static final int JWT_AUTHENTICATION = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 10;
+    public static final int RATE_LIMIT = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 9;
+    public static final int RESPONSE_CACHE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 4;
+    public static final int REQUEST_COALESCING = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+    public static final int CONCURRENCY_LIMIT = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    public static final int HEDGING = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    // Answers the request itself where a routed request would be sent upstream; never on a hedged route
+    public static final int PRODUCT_PAGE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    // Global: right after the load balancer has chosen the instance
+    public static final int LOAD_TRACKING = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    private FilterOrder() {
+    }
+}
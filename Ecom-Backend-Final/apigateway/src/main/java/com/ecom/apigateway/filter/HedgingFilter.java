@@ -0,0 +1,348 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.config.HedgingProperties;
+import com.ecom.apigateway.hedge.HedgeBudget;
+import com.ecom.apigateway.hedge.LatencyWindow;
+import com.ecom.apigateway.loadbalancer.LatencyAwareLoadBalancer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged GETs for opt-in lb:// routes. The rest of the route's filter chain (load balancing, routing with the
+ * configured httpclient timeouts and header filters, response writing) runs once as usual; if no response has
+ * arrived after the route's observed p95 (or configured delay), it runs a second time, with the load balancer
+ * told to pick the least loaded instance other than the first one's. Whichever attempt receives its response
+ * headers first streams its body to the client and the other is cancelled. A per-route budget caps the extra load,
+ * and the hedge is only sent if the route's concurrency limit has a slot for it; skipped hedges are counted as
+ * "budget_exhausted" or "limited".
+ */
+@Component
+public class HedgingFilter implements GatewayFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingFilter.class);
+
+    private final HedgingProperties properties;
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final LoadBalancerClientFactory clientFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteState> states = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingProperties properties, ConcurrencyLimitFilter concurrencyLimit,
+                         LoadBalancerClientFactory clientFactory, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.concurrencyLimit = concurrencyLimit;
+        this.clientFactory = clientFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+        HedgingProperties.Policy policy = properties.policyFor(route.getId());
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+
+        String serviceId = route.getUri().getHost();
+        RouteState state = states.computeIfAbsent(route.getId(), id -> new RouteState(policy));
+        ServiceInstanceListSupplier supplier = clientFactory
+                .getLazyProvider(serviceId, ServiceInstanceListSupplier.class).getIfAvailable();
+        if (supplier == null) {
+            return chain.filter(exchange);
+        }
+
+        return supplier.get().next()
+                .map(List::size)
+                .defaultIfEmpty(0)
+                .flatMap(instances -> {
+                    if (instances < 2) {
+                        return chain.filter(exchange);
+                    }
+                    state.budget.deposit();
+                    return hedge(exchange, chain, route.getId(), state, policy);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.HEDGING;
+    }
+
+    private Mono<Void> hedge(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, RouteState state,
+                             HedgingProperties.Policy policy) {
+        long start = System.nanoTime();
+        long observed = policy.getPercentile() > 0 ? state.window.percentileNanos() : -1;
+        Duration delay = observed > 0 ? Duration.ofNanos(observed) : policy.getDelay();
+
+        Race race = new Race(exchange, start);
+        Attempt primary = race.attempt(false);
+        Mono<Attempt> first = run(primary, chain);
+        Mono<Attempt> second = Mono.delay(delay).flatMap(tick -> {
+            if (race.decided()) {
+                return Mono.empty();
+            }
+            if (!state.budget.tryWithdraw()) {
+                count(routeId, "budget_exhausted");
+                return Mono.empty();
+            }
+            Attempt hedge = race.attempt(true);
+            Response<ServiceInstance> chosen =
+                    primary.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (chosen != null && chosen.hasServer()) {
+                hedge.getAttributes().put(LatencyAwareLoadBalancer.EXCLUDE_INSTANCE_ATTR, chosen.getServer());
+            }
+            // The hedge is one more request upstream: it needs a slot under the route's concurrency limit too
+            return concurrencyLimit.limit(routeId, hedge, run(hedge, chain), reason -> {
+                state.budget.refund();
+                count(routeId, "limited");
+                return Mono.empty();
+            });
+        });
+
+        return Mono.firstWithValue(first, second)
+                .doOnNext(winner -> {
+                    state.window.record(race.firstResponseNanos - start);
+                    count(routeId, winner.hedge ? "hedge_won" : "primary_won");
+                })
+                .then()
+                .onErrorResume(e -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    if (response.isCommitted()) {
+                        return Mono.error(e);
+                    }
+                    log.warn("Hedged GET {} failed on every instance: {}", exchange.getRequest().getURI().getRawPath(),
+                            e.getMessage());
+                    response.setStatusCode(HttpStatus.BAD_GATEWAY);
+                    return response.setComplete();
+                });
+    }
+
+    /** Runs the rest of the chain for one attempt; completes with the attempt only if it won. */
+    private static Mono<Attempt> run(Attempt attempt, GatewayFilterChain chain) {
+        return chain.filter(attempt)
+                .then(Mono.fromSupplier(() -> attempt.race.winner.get() == attempt ? attempt : null))
+                .takeUntilOther(attempt.lost.asMono());
+    }
+
+    private void count(String routeId, String result) {
+        meterRegistry.counter("gateway.hedging.requests", "route", routeId, "result", result).increment();
+    }
+
+    private static final class RouteState {
+
+        private final LatencyWindow window;
+        private final HedgeBudget budget;
+
+        private RouteState(HedgingProperties.Policy policy) {
+            this.window = new LatencyWindow(policy.getPercentile() > 0 ? policy.getPercentile() : 95);
+            this.budget = new HedgeBudget(policy.getBudgetPercent());
+        }
+    }
+
+    /** The attempts of one hedged request; the first to receive a response wins and cancels the others. */
+    private static final class Race {
+
+        private final ServerWebExchange exchange;
+        private final List<Attempt> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Attempt> winner = new AtomicReference<>();
+        private volatile long firstResponseNanos;
+
+        private Race(ServerWebExchange exchange, long start) {
+            this.exchange = exchange;
+            this.firstResponseNanos = start;
+        }
+
+        private Attempt attempt(boolean hedge) {
+            Attempt attempt = new Attempt(this, hedge);
+            attempts.add(attempt);
+            return attempt;
+        }
+
+        private boolean decided() {
+            return winner.get() != null;
+        }
+
+        private boolean claim(Attempt attempt) {
+            if (!winner.compareAndSet(null, attempt)) {
+                return winner.get() == attempt;
+            }
+            firstResponseNanos = System.nanoTime();
+            // Downstream of the hedge (route metrics) should see the winner's instance and load-balancer response
+            exchange.getAttributes().putAll(attempt.attributes);
+            for (Attempt other : attempts) {
+                if (other != attempt) {
+                    other.lost.tryEmitValue(Boolean.TRUE);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One run of the chain: a view of the exchange with its own attributes, so the two runs' routing state does
+     * not mix, and a response that holds status and headers back until this attempt has won.
+     */
+    private static final class Attempt extends ServerWebExchangeDecorator {
+
+        private final Race race;
+        private final boolean hedge;
+        private final Map<String, Object> attributes;
+        private final AttemptResponse response;
+        private final Sinks.One<Boolean> lost = Sinks.one();
+
+        private Attempt(Race race, boolean hedge) {
+            super(race.exchange);
+            this.race = race;
+            this.hedge = hedge;
+            this.attributes = new ConcurrentHashMap<>(race.exchange.getAttributes());
+            Set<?> originalUrls = race.exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+            if (originalUrls != null) {
+                attributes.put(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR,
+                        new LinkedHashSet<>(originalUrls));
+            }
+            this.response = new AttemptResponse(this, race.exchange.getResponse());
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+    }
+
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final Attempt attempt;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+        private HttpStatusCode status;
+
+        private AttemptResponse(Attempt attempt, ServerHttpResponse delegate) {
+            super(delegate);
+            this.attempt = attempt;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean setRawStatusCode(Integer value) {
+            return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Integer getRawStatusCode() {
+            return status != null ? status.value() : null;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return cookies;
+        }
+
+        @Override
+        public void addCookie(ResponseCookie cookie) {
+            cookies.add(cookie.getName(), cookie);
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return attempt.race.winner.get() == attempt && getDelegate().isCommitted();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!claim()) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then();
+            }
+            return getDelegate().writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            if (!claim()) {
+                return Flux.from(body).flatMap(Flux::from).doOnNext(DataBufferUtils::release).then();
+            }
+            return getDelegate().writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return claim() ? getDelegate().setComplete() : Mono.empty();
+        }
+
+        // Moves status, headers and cookies to the client's response once this attempt has won
+        private boolean claim() {
+            if (!attempt.race.claim(attempt)) {
+                return false;
+            }
+            ServerHttpResponse delegate = getDelegate();
+            if (status != null) {
+                delegate.setStatusCode(status);
+            }
+            delegate.getHeaders().putAll(headers);
+            cookies.values().forEach(values -> values.forEach(delegate::addCookie));
+            return true;
+        }
+    }
+}
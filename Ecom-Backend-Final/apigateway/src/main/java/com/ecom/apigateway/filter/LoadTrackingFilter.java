@@ -0,0 +1,97 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.loadbalancer.InstanceLoadTracker;
+import com.ecom.apigateway.metrics.GatewayMetrics;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Feeds {@link InstanceLoadTracker} with every request sent to a load-balanced instance: counts it as outstanding
+ * once the instance is chosen and takes it off again however it ends. The load balancer's own lifecycle callbacks
+ * are not used for this because they never fire when the request is cancelled (client gone, hedge lost), which
+ * would leave the instance looking busier with every cancellation. Every request is also published as
+ * gateway.upstream.requests per instance; cancelled ones with status "cancelled" and the time until cancellation.
+ * <p>
+ * Routed requests are tracked as a global filter running right after the load-balancer filter;
+ * the gateway's own WebClient calls through {@link #loadBalanced}.
+ */
+@Component
+public class LoadTrackingFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadTracker tracker;
+    private final GatewayMetrics gatewayMetrics;
+
+    public LoadTrackingFilter(InstanceLoadTracker tracker, GatewayMetrics gatewayMetrics) {
+        this.tracker = tracker;
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        return track(lbResponse.getServer(), chain.filter(exchange), () -> exchange.getResponse().getStatusCode());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.LOAD_TRACKING;
+    }
+
+    /** The load-balancer exchange filter for a WebClient, with its requests tracked like routed ones. */
+    public ExchangeFilterFunction loadBalanced(ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        return (request, next) -> {
+            String serviceId = request.url().getHost();
+            return loadBalancer.filter(request, resolved -> {
+                AtomicReference<HttpStatusCode> status = new AtomicReference<>();
+                Mono<ClientResponse> response = next.exchange(resolved)
+                        .doOnNext(clientResponse -> status.set(clientResponse.statusCode()));
+                return track(instance(serviceId, resolved.url()), response, status::get);
+            });
+        };
+    }
+
+    private <T> Mono<T> track(ServiceInstance instance, Mono<T> request, Supplier<HttpStatusCode> status) {
+        return Mono.defer(() -> {
+            tracker.onStart(instance);
+            long start = System.nanoTime();
+            return request.doFinally(signal -> {
+                long now = System.nanoTime();
+                long latency = now - start;
+                if (signal == SignalType.CANCEL) {
+                    tracker.onCancel(instance);
+                    gatewayMetrics.recordUpstream(instance, GatewayMetrics.CANCELLED, latency);
+                    return;
+                }
+                tracker.onComplete(instance, latency, now);
+                gatewayMetrics.recordUpstream(instance,
+                        signal == SignalType.ON_ERROR ? "error" : GatewayMetrics.statusClass(status.get()), latency);
+            });
+        });
+    }
+
+    private static ServiceInstance instance(String serviceId, URI url) {
+        return new DefaultServiceInstance(null, serviceId, url.getHost(), url.getPort(),
+                "https".equals(url.getScheme()));
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecom.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight for identical GETs: while one request for a path+query is in flight upstream,
+ * identical requests on allowlisted routes wait for its response instead of calling the backend.
+ * Waiters that do not get a response within max-wait go upstream themselves.
+ */
+@Component
+public class RequestCoalescingFilter implements GatewayFilter, Ordered {
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> routes;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingFilter(@Value("${gateway.coalescing.routes:}") List<String> routes,
+                                   @Value("${gateway.coalescing.max-wait:2s}") Duration maxWait,
+                                   MeterRegistry meterRegistry) {
+        this.routes = Set.copyOf(routes);
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !routes.contains(route.getId()) || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        String rawQuery = request.getURI().getRawQuery();
+        String key = request.getURI().getRawPath() + (rawQuery != null ? "?" + rawQuery : "");
+
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, sink);
+        if (existing != null) {
+            return follow(exchange, chain, existing, routeId);
+        }
+        count(routeId, "leader");
+        return lead(exchange, chain, key, sink);
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.REQUEST_COALESCING;
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                            Sinks.One<SharedResponse> sink) {
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    // Stop accepting followers before fanning out, so late arrivals start a new flight
+                    inFlight.remove(key, sink);
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.addAll(getHeaders());
+                    sink.tryEmitValue(new SharedResponse(getStatusCode(), headers, bytes));
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    // Error, cancel or empty response: release followers so they go upstream
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Sinks.One<SharedResponse> leader, String routeId) {
+        return leader.asMono()
+                .timeout(maxWait, Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isPresent()) {
+                        count(routeId, "follower");
+                        return write(exchange.getResponse(), shared.get());
+                    }
+                    count(routeId, "fallback");
+                    return chain.filter(exchange);
+                });
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status);
+        HttpHeaders headers = response.getHeaders();
+        shared.headers.forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(shared.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body)));
+    }
+
+    private void count(String routeId, String role) {
+        meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", role).increment();
+    }
+
+    private static final class SharedResponse {
+
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
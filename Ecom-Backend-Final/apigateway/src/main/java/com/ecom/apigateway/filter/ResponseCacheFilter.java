@@ -0,0 +1,140 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.cache.CachedResponse;
+import com.ecom.apigateway.cache.ResponseCache;
+import com.ecom.apigateway.config.ResponseCacheProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Caches 200 responses to GET requests on routes configured under gateway.response-cache.routes.
+ * Every response carries a strong ETag, and a matching If-None-Match is answered with 304.
+ * Runs after JWT authentication, so cached data is only served to authenticated callers.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCacheProperties properties) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Duration ttl = route != null ? properties.ttlFor(route.getId()) : null;
+        if (ttl == null || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        String key = ResponseCache.keyOf(request.getMethod().name(),
+                request.getURI().getRawPath(), request.getURI().getRawQuery());
+
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            responseCache.recordBytesSaved(routeId, "upstream", cached.getBody().length);
+            return writeCached(exchange, cached);
+        }
+
+        long ttlNanos = ttl.toNanos();
+        long maxEntryBytes = properties.getMaxEntrySize().toBytes();
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (getStatusCode() != HttpStatus.OK) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    CachedResponse entry = new CachedResponse(routeId, bytes,
+                            getHeaders().getContentType(), ResponseCache.etagOf(bytes), ttlNanos);
+                    if (bytes.length <= maxEntryBytes) {
+                        responseCache.put(key, entry);
+                    }
+
+                    getHeaders().setETag(entry.getEtag());
+                    getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                    if (matchesIfNoneMatch(request, entry.getEtag())) {
+                        return notModified(getDelegate(), entry, routeId);
+                    }
+                    getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                    getHeaders().setContentLength(bytes.length);
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.RESPONSE_CACHE;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.getEtag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.getEtag())) {
+            return notModified(response, cached, cached.getRouteId());
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.getContentType() != null) {
+            headers.setContentType(cached.getContentType());
+        }
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private Mono<Void> notModified(ServerHttpResponse response, CachedResponse entry, String routeId) {
+        responseCache.recordBytesSaved(routeId, "not-modified", entry.getBody().length);
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        return response.setComplete();
+    }
+
+    /** Weak comparison (RFC 9110 13.1.2): compressed responses carry the weak form of the cached ETag. */
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if (candidate.equals("*") || opaqueTag(candidate).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
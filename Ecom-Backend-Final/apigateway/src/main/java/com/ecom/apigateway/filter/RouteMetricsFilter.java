@@ -0,0 +1,59 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.metrics.GatewayMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Times every routed request end to end, tagged by route, status class and the upstream instance that served it
+ * ("none" for cache hits, coalesced followers and shed or rejected requests). Runs first so the JWT filter,
+ * rate limiting and everything else are inside the measured span.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public RouteMetricsFilter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (route == null) {
+                return;
+            }
+            String status = switch (signal) {
+                case CANCEL -> GatewayMetrics.CANCELLED;
+                case ON_ERROR -> "error";
+                default -> GatewayMetrics.statusClass(exchange.getResponse().getStatusCode());
+            };
+            gatewayMetrics.recordRoute(route.getId(), status, instance(exchange), System.nanoTime() - start);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.ROUTE_METRICS;
+    }
+
+    private static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        // Unresolved lb:// URIs and routes the gateway answers itself (no://op) have no instance
+        if (url == null || !url.getScheme().startsWith("http") || url.getHost() == null) {
+            return GatewayMetrics.NO_INSTANCE;
+        }
+        return url.getHost() + ":" + url.getPort();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecom.apigateway.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry-budget style cap on hedges: every hedgeable request deposits a fraction of a token and every hedge
+ * withdraws a whole one, so over time hedges never exceed the configured percentage of requests.
+ */
+public final class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+    private static final long MAX_BALANCE = 10 * TOKEN;
+
+    private final long depositPerRequest;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double percent) {
+        this.depositPerRequest = Math.round(percent * TOKEN / 100);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, add) -> Math.min(MAX_BALANCE, current + add));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /** Puts back the token of a hedge that was withdrawn but never sent. */
+    public void refund() {
+        balance.accumulateAndGet(TOKEN, (current, add) -> Math.min(MAX_BALANCE, current + add));
+    }
+}
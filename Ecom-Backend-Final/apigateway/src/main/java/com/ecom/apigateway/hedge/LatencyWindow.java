@@ -0,0 +1,44 @@
+package com.ecom.apigateway.hedge;
+
+import java.util.Arrays;
+
+/**
+ * The last few hundred response times of a route. The requested percentile is recomputed
+ * every {@value #RECOMPUTE_EVERY} samples so reading it on the request path is just a volatile read.
+ */
+public final class LatencyWindow {
+
+    private static final int SIZE = 512;
+    private static final int MIN_SAMPLES = 100;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final int percentile;
+    private final long[] samples = new long[SIZE];
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyWindow(int percentile) {
+        this.percentile = percentile;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SIZE;
+        if (count < SIZE) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY && count >= MIN_SAMPLES) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.ceil(count * percentile / 100.0) - 1];
+        }
+    }
+
+    /** The observed percentile in nanoseconds, or -1 until enough samples have been recorded. */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecom.apigateway.kafka;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.ecom.apigateway.cache.ResponseCache;
+
+@Service
+public class CatalogEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEventConsumer.class);
+
+    // Category product listings are served from product data, so product changes invalidate both
+    private static final Set<String> PRODUCT_ROUTES = Set.of("productservice", "categoryservice");
+    private static final Set<String> CATEGORY_ROUTES = Set.of("categoryservice");
+
+    private final ResponseCache responseCache;
+
+    public CatalogEventConsumer(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @KafkaListener(topics = {"PRODUCT_CREATED", "PRODUCT_UPDATED", "PRODUCT_DELETED", "PRODUCT_STOCK_REDUCED"})
+    public void consumeProductEvent(Map<String, Object> eventData) {
+        log.debug("Invalidating catalog cache for {} event {}", eventData.get("eventType"), eventData.get("eventId"));
+        responseCache.invalidateRoutes(PRODUCT_ROUTES);
+    }
+
+    @KafkaListener(topics = "CATEGORY_CREATED")
+    public void consumeCategoryCreated(Map<String, Object> eventData) {
+        log.debug("Invalidating category cache for CATEGORY_CREATED event {}", eventData.get("eventId"));
+        responseCache.invalidateRoutes(CATEGORY_ROUTES);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecom.apigateway.kafka;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.ecom.apigateway.revocation.TokenRevocationList;
+
+@Service
+public class TokenRevocationConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationConsumer.class);
+
+    private final TokenRevocationList revocationList;
+
+    public TokenRevocationConsumer(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
+    // Unlike cache invalidations, a new instance must learn every revocation still in force, so read from the start
+    // (authservice keeps the topic for the token lifetime)
+    @KafkaListener(topics = "TOKEN_REVOKED", properties = "auto.offset.reset=earliest")
+    public void consumeTokenRevoked(Map<String, Object> eventData) {
+        Object tokenId = eventData.get("tokenId");
+        Object expiresAt = eventData.get("expiresAt");
+        if (!(tokenId instanceof String id) || !(expiresAt instanceof Number expiry)) {
+            log.warn("Ignoring malformed TOKEN_REVOKED event {}", eventData.get("eventId"));
+            return;
+        }
+        log.debug("Revoking token {} of {}", id, eventData.get("username"));
+        revocationList.revoke(id, expiry.longValue());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecom.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outstanding requests and a peak-sensitive, time-decayed latency average per upstream instance.
+ * The cost of an instance is latency x (outstanding + 1), as in Finagle's peak EWMA balancer.
+ */
+@Component
+public class InstanceLoadTracker {
+
+    private final double decayNanos;
+    private final double initialLatencyNanos;
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(@Value("${gateway.loadbalancer.latency-decay:10s}") Duration decay,
+                               @Value("${gateway.loadbalancer.initial-latency:100ms}") Duration initialLatency) {
+        this.decayNanos = decay.toNanos();
+        this.initialLatencyNanos = initialLatency.toNanos();
+    }
+
+    public void onStart(ServiceInstance instance) {
+        statsFor(instance).outstanding.incrementAndGet();
+    }
+
+    public void onComplete(ServiceInstance instance, long latencyNanos, long nowNanos) {
+        InstanceStats s = statsFor(instance);
+        s.outstanding.decrementAndGet();
+        s.record(latencyNanos, nowNanos, decayNanos);
+    }
+
+    /** A request abandoned before it finished: no longer outstanding, but its partial latency says nothing. */
+    public void onCancel(ServiceInstance instance) {
+        statsFor(instance).outstanding.decrementAndGet();
+    }
+
+    public double cost(ServiceInstance instance, long nowNanos) {
+        InstanceStats s = statsFor(instance);
+        return s.latency(nowNanos, decayNanos, initialLatencyNanos) * (Math.max(0, s.outstanding.get()) + 1);
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        return statsFor(instance).outstanding.get();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getHost() + ":" + instance.getPort(), k -> new InstanceStats());
+    }
+
+    private static final class InstanceStats {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double ewmaNanos = -1;
+        private long lastUpdateNanos;
+
+        synchronized void record(long sampleNanos, long nowNanos, double decayNanos) {
+            if (ewmaNanos < 0 || sampleNanos > ewmaNanos) {
+                // Jump straight to a new peak so a degrading instance is avoided immediately
+                ewmaNanos = sampleNanos;
+            } else {
+                double w = Math.exp(-(nowNanos - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * w + sampleNanos * (1 - w);
+            }
+            lastUpdateNanos = nowNanos;
+        }
+
+        /** An idle instance's estimate fades over time, so a recovered instance gets probed again. */
+        synchronized double latency(long nowNanos, double decayNanos, double initialLatencyNanos) {
+            if (ewmaNanos < 0) {
+                return initialLatencyNanos;
+            }
+            return ewmaNanos * Math.exp(-Math.max(0, nowNanos - lastUpdateNanos) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecom.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices: samples two random instances and sends the request to the one with the lower
+ * latency x outstanding cost. Avoids slow instances without herding every request onto the single best one.
+ * <p>
+ * A request whose exchange carries {@link #EXCLUDE_INSTANCE_ATTR} (a hedge) goes to the least loaded instance
+ * other than the excluded one instead.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    public static final String EXCLUDE_INSTANCE_ATTR = LatencyAwareLoadBalancer.class.getName() + ".excludeInstance";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceLoadTracker tracker;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    InstanceLoadTracker tracker) {
+        this.supplierProvider = supplierProvider;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        ServiceInstance excluded = excludedInstance(request);
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance chosen = excluded != null
+                    ? leastLoadedOther(instances, excluded, System.nanoTime())
+                    : chooseInstance(instances, System.nanoTime());
+            if (chosen == null) {
+                return new EmptyResponse();
+            }
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(chosen);
+            }
+            return new DefaultResponse(chosen);
+        });
+    }
+
+    ServiceInstance chooseInstance(List<ServiceInstance> instances, long nowNanos) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return tracker.cost(a, nowNanos) <= tracker.cost(b, nowNanos) ? a : b;
+    }
+
+    ServiceInstance leastLoadedOther(List<ServiceInstance> instances, ServiceInstance excluded, long nowNanos) {
+        ServiceInstance best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (ServiceInstance instance : instances) {
+            if (instance.getHost().equals(excluded.getHost()) && instance.getPort() == excluded.getPort()) {
+                continue;
+            }
+            double cost = tracker.cost(instance, nowNanos);
+            if (cost < bestCost) {
+                best = instance;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    private static ServiceInstance excludedInstance(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null && context.getClientRequest().getAttributes() != null) {
+            return (ServiceInstance) context.getClientRequest().getAttributes().get(EXCLUDE_INSTANCE_ATTR);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecom.apigateway.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RED metrics for gateway traffic. Each timer keeps client-side p50/p95/p99 (HdrHistogram recorders, recorded
+ * without locks) and publishes a bucketed histogram for Prometheus; its count gives the request rate and the
+ * status tag the error rate.
+ * <ul>
+ *   <li>gateway.route.requests{route,status,instance}: whole request as seen by the client</li>
+ *   <li>gateway.upstream.requests{service,instance,status}: time spent waiting on the downstream instance;
+ *   status "cancelled" for attempts abandoned before they finished (client gone, hedge lost)</li>
+ *   <li>gateway.jwt.filter{route,result}: time spent authenticating the request</li>
+ * </ul>
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String NO_INSTANCE = "none";
+    public static final String CANCELLED = "cancelled";
+
+    private final Meter.MeterProvider<Timer> routeTimer;
+    private final Meter.MeterProvider<Timer> upstreamTimer;
+    private final Meter.MeterProvider<Timer> jwtTimer;
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.routeTimer = latencyTimer("gateway.route.requests", "Requests per route, status class and instance")
+                .withRegistry(meterRegistry);
+        this.upstreamTimer = latencyTimer("gateway.upstream.requests", "Time waiting on downstream instances")
+                .withRegistry(meterRegistry);
+        this.jwtTimer = Timer.builder("gateway.jwt.filter")
+                .description("Time spent in JWT authentication")
+                .publishPercentiles(0.5, 0.99)
+                .withRegistry(meterRegistry);
+    }
+
+    public void recordRoute(String routeId, String status, String instance, long nanos) {
+        routeTimer.withTags(Tags.of("route", routeId, "status", status, "instance", instance))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(ServiceInstance instance, String status, long nanos) {
+        upstreamTimer.withTags(Tags.of("service", instance.getServiceId().toLowerCase(),
+                        "instance", instanceTag(instance), "status", status))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwt(String routeId, String result, long nanos) {
+        jwtTimer.withTags(Tags.of("route", routeId, "result", result)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static String statusClass(HttpStatusCode status) {
+        if (status == null) {
+            return "error";
+        }
+        return (status.value() / 100) + "xx";
+    }
+
+    public static String instanceTag(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static Timer.Builder latencyTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+}
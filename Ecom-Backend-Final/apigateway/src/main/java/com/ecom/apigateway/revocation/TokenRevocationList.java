@@ -0,0 +1,83 @@
+package com.ecom.apigateway.revocation;
+
+import com.ecom.common.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids (jti) revoked before their expiry, fed from the TOKEN_REVOKED topic. A Bloom filter answers the common
+ * "not revoked" case with a few bit probes; only ids it might contain are checked against the exact set. Bloom
+ * filters cannot forget, so the purge job drops expired ids and swaps in a filter rebuilt from the survivors.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Map<String, Long> expiresAtById = new ConcurrentHashMap<>();
+    private final Counter bloomFalsePositives;
+    private final Counter revokedHits;
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(@Value("${gateway.revocation.expected-revocations:100000}") long expectedRevocations,
+                               @Value("${gateway.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        Gauge.builder("gateway.revocation.entries", expiresAtById, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        this.bloomFalsePositives = Counter.builder("gateway.revocation.checks")
+                .tag("result", "bloom-false-positive")
+                .register(meterRegistry);
+        this.revokedHits = Counter.builder("gateway.revocation.checks")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+    }
+
+    // Writers are rare (one per sign-out) and synchronize with the rebuild so no revocation misses the new filter
+    public synchronized void revoke(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        expiresAtById.merge(tokenId, expiresAtMillis, Math::max);
+        filter.add(tokenId);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = expiresAtById.get(tokenId);
+        if (expiresAt == null || expiresAt <= System.currentTimeMillis()) {
+            bloomFalsePositives.increment();
+            return false;
+        }
+        revokedHits.increment();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.revocation.purge-interval:5m}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (!expiresAtById.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, 2L * expiresAtById.size()),
+                falsePositiveRate);
+        expiresAtById.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    public int size() {
+        return expiresAtById.size();
+    }
+}
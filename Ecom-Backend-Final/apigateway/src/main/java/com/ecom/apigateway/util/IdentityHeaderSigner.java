@@ -0,0 +1,72 @@
+package com.ecom.apigateway.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Signs the identity headers the gateway forwards after verifying a JWT, so downstream
+ * services can trust X-User-Name/X-User-Roles without parsing the token again.
+ * The signature is a truncated HMAC-SHA256 over name, roles and expiry.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    public static final String HEADER_USER_NAME = "X-User-Name";
+    public static final String HEADER_USER_ROLES = "X-User-Roles";
+    public static final String HEADER_USER_EXPIRES = "X-User-Expires";
+    public static final String HEADER_USER_SIGNATURE = "X-User-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    // Mac is not thread-safe; one initialised instance per event-loop thread
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityHeaderSigner(@Value("${gateway.identity.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * Replaces any identity headers on {@code headers} with the signed identity of {@code token}.
+     */
+    public void applyTo(HttpHeaders headers, VerifiedToken token) {
+        String username = token.getSubject();
+        String roles = token.getRoles() != null ? token.getRoles() : "";
+        long expiresAt = token.getExpiresAtMillis() / 1000;
+        headers.set(HEADER_USER_NAME, username);
+        headers.set(HEADER_USER_ROLES, roles);
+        headers.set(HEADER_USER_EXPIRES, Long.toString(expiresAt));
+        headers.set(HEADER_USER_SIGNATURE, sign(username, roles, expiresAt));
+    }
+
+    /** Removes any identity headers from {@code headers}, for requests forwarded without a verified token. */
+    public static void removeFrom(HttpHeaders headers) {
+        headers.remove(HEADER_USER_NAME);
+        headers.remove(HEADER_USER_ROLES);
+        headers.remove(HEADER_USER_EXPIRES);
+        headers.remove(HEADER_USER_SIGNATURE);
+    }
+
+    public String sign(String username, String roles, long expiresAtEpochSeconds) {
+        String payload = username + '\n' + (roles != null ? roles : "") + '\n' + expiresAtEpochSeconds;
+        byte[] hmac = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hmac, SIGNATURE_BYTES));
+    }
+}
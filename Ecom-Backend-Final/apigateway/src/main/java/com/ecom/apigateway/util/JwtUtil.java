@@ -1,8 +1,14 @@
 package com.ecom.apigateway.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,23 +18,56 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // The keys are resolved per token from its header and the parser is immutable and thread-safe, so it is shared
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /** Verifies HS256 tokens only. */
+    public JwtUtil(String secret) {
+        this(secret, null, true);
+    }
+
+    /**
+     * ES256 tokens are verified against authservice's published key set; HS256 tokens signed with the shared
+     * secret are accepted while {@code jwt.hs256.accept} is on, to cover tokens issued before the switch.
+     */
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   JwksKeySet jwksKeySet,
+                   @Value("${jwt.hs256.accept:true}") boolean acceptHs256) {
+        Key hmacKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String algorithm = header.getAlgorithm();
+                        if (SignatureAlgorithm.ES256.getValue().equals(algorithm) && jwksKeySet != null) {
+                            Key key = jwksKeySet.getKey(header.getKeyId());
+                            if (key != null) {
+                                return key;
+                            }
+                        } else if (SignatureAlgorithm.HS256.getValue().equals(algorithm) && acceptHs256) {
+                            return hmacKey;
+                        }
+                        throw new SignatureException("Unknown signing key " + header.getKeyId() + " for " + algorithm);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifies signature and expiry and parses the token once.
+     * Throws a JwtException if the token is invalid.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(extractAllClaims(token));
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).getSubject();
     }
 
     public Date extractExpiration(String token) {
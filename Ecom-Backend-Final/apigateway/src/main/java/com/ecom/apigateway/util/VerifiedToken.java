@@ -0,0 +1,51 @@
+package com.ecom.apigateway.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Immutable view of a verified JWT, built from a single parse of the token.
+ */
+public final class VerifiedToken {
+
+    private final String tokenId;
+    private final String subject;
+    private final String roles;
+    private final String email;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(Claims claims) {
+        this.tokenId = claims.getId();
+        this.subject = claims.getSubject();
+        this.roles = claims.get("roles", String.class);
+        this.email = claims.get("email", String.class);
+        Date expiration = claims.getExpiration();
+        this.expiresAtMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    /** The jti claim, or null for tokens issued before authservice added one. */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getRoles() {
+        return roles;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
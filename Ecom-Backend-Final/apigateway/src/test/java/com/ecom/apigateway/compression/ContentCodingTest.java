@@ -0,0 +1,41 @@
+package com.ecom.apigateway.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentCodingTest {
+
+    @Test
+    void prefersBrotliOnlyWhenAvailableAndNotWeightedLower() {
+        assertEquals(ContentCoding.BROTLI, ContentCoding.negotiate("gzip, deflate, br", true));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate, br", false));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("br;q=0.5, gzip", true));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*;q=0.1, br;q=0", true));
+    }
+
+    @Test
+    void noCodingWhenClientAcceptsOnlyIdentity() {
+        assertNull(ContentCoding.negotiate(null, true));
+        assertNull(ContentCoding.negotiate("identity", true));
+        assertNull(ContentCoding.negotiate("gzip;q=0, br;q=0", true));
+    }
+
+    @Test
+    void gzipRoundTrips() throws IOException {
+        byte[] json = "[{\"id\":1,\"name\":\"product\"}]".repeat(200).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = ContentCoding.GZIP.encode(json, 6);
+        assertTrue(compressed.length < json.length / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecom.apigateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the limiter against a simulated backend that serves {@code capacity} requests in parallel at 10ms
+ * and queues the rest, so latency grows linearly once concurrency exceeds capacity.
+ */
+class VegasLimiterTest {
+
+    private static final long BASE_RTT = 10_000_000L;
+
+    @Test
+    void limitSettlesNearBackendCapacity() {
+        VegasLimiter limiter = new VegasLimiter(20, 5, 500);
+        int median = medianLimit(limiter, 50, 300);
+        assertTrue(median >= 35 && median <= 75, "median limit was " + median);
+    }
+
+    @Test
+    void limitFollowsCapacityDown() {
+        VegasLimiter limiter = new VegasLimiter(20, 5, 500);
+        medianLimit(limiter, 50, 200);
+        int median = medianLimit(limiter, 20, 200);
+        assertTrue(median >= 14 && median <= 30, "median limit was " + median);
+    }
+
+    @Test
+    void rejectsOnceLimitIsReached() {
+        VegasLimiter limiter = new VegasLimiter(5, 5, 500);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(5, limiter.getInFlight());
+    }
+
+    @Test
+    void droppedRequestsBackOffButNeverBelowMinimum() {
+        VegasLimiter limiter = new VegasLimiter(50, 5, 500);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onDropped();
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /** Runs rounds that fill the limiter and complete every request; returns the median limit of the second half. */
+    private static int medianLimit(VegasLimiter limiter, int capacity, int rounds) {
+        int[] limits = new int[rounds / 2];
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            long rtt = (long) (BASE_RTT * Math.max(1.0, acquired / (double) capacity));
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(rtt);
+            }
+            if (round >= rounds - limits.length) {
+                limits[round - (rounds - limits.length)] = limiter.getLimit();
+            }
+        }
+        Arrays.sort(limits);
+        return limits[limits.length / 2];
+    }
+}
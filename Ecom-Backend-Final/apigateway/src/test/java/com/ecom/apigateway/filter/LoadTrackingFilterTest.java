@@ -0,0 +1,63 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.loadbalancer.InstanceLoadTracker;
+import com.ecom.apigateway.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoadTrackingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceLoadTracker tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofMillis(100));
+    private final LoadTrackingFilter filter = new LoadTrackingFilter(tracker, new GatewayMetrics(meterRegistry));
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("p1", "PRODUCTSERVICE", "10.0.0.1", 8081, false);
+
+    @Test
+    void cancelledRequestIsNoLongerOutstandingAndCountsAsCancelled() {
+        MockServerWebExchange exchange = routedExchange();
+
+        Disposable request = filter.filter(exchange, e -> Mono.never()).subscribe();
+        assertEquals(1, tracker.outstanding(instance));
+
+        request.dispose();
+        assertEquals(0, tracker.outstanding(instance));
+        assertEquals(1, meterRegistry.get("gateway.upstream.requests")
+                .tag("instance", "10.0.0.1:8081").tag("status", "cancelled").timer().count());
+    }
+
+    @Test
+    void completedRequestRecordsUpstreamLatency() {
+        MockServerWebExchange exchange = routedExchange();
+
+        filter.filter(exchange, e -> {
+            e.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        }).block();
+
+        assertEquals(0, tracker.outstanding(instance));
+        assertEquals(1, meterRegistry.get("gateway.upstream.requests")
+                .tag("service", "productservice").tag("instance", "10.0.0.1:8081").tag("status", "2xx")
+                .timer().count());
+    }
+
+    private MockServerWebExchange routedExchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(instance));
+        return exchange;
+    }
+}
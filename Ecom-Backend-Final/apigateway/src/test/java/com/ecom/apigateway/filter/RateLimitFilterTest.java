@@ -0,0 +1,75 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.config.RateLimitProperties;
+import com.ecom.apigateway.util.IdentityHeaderSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), meterRegistry);
+
+    @Test
+    void rejectsOverTheBurstWith429AndRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(send("orderservice", "alice").getResponse().getStatusCode());
+        }
+        MockServerWebExchange rejected = send("orderservice", "alice");
+
+        assertEquals(3, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("gateway.ratelimit.rejected").tag("route", "orderservice")
+                .counter().count());
+    }
+
+    @Test
+    void keepsASeparateBucketPerUserAndLeavesUnlistedRoutesAlone() {
+        for (int i = 0; i < 3; i++) {
+            send("orderservice", "alice");
+        }
+
+        assertNull(send("orderservice", "bob").getResponse().getStatusCode());
+        for (int i = 0; i < 10; i++) {
+            assertNull(send("productservice", "alice").getResponse().getStatusCode());
+        }
+        assertEquals(14, forwarded.get());
+    }
+
+    private MockServerWebExchange send(String routeId, String username) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+                .header(IdentityHeaderSigner.HEADER_USER_NAME, username));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId).uri("lb://" + routeId.toUpperCase()).predicate(e -> true).build());
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(3);
+        limit.setRefillPerSecond(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("orderservice", limit);
+        return properties;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecom.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestCoalescingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescingFilter filter =
+            new RequestCoalescingFilter(List.of("productservice"), Duration.ofSeconds(5), meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> upstreamResponds = Sinks.empty();
+
+    @Test
+    void followerSharesTheLeadersResponseWithoutGoingUpstream() {
+        GatewayFilterChain upstream = respondWith(HttpStatus.OK, "[{\"id\":1}]");
+        MockServerWebExchange leader = exchange("/products?page=1");
+        MockServerWebExchange follower = exchange("/products?page=1");
+
+        Mono<Void> leading = filter.filter(leader, upstream).cache();
+        leading.subscribe();
+        Mono<Void> following = filter.filter(follower, upstream).cache();
+        following.subscribe();
+        upstreamResponds.tryEmitEmpty();
+        leading.block(Duration.ofSeconds(5));
+        following.block(Duration.ofSeconds(5));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("[{\"id\":1}]", leader.getResponse().getBodyAsString().block());
+        assertEquals("[{\"id\":1}]", follower.getResponse().getBodyAsString().block());
+        assertEquals(1, meterRegistry.get("gateway.coalescing.requests").tag("role", "follower").counter().count());
+    }
+
+    @Test
+    void followerSharesAnErrorResponseToo() {
+        GatewayFilterChain upstream = respondWith(HttpStatus.SERVICE_UNAVAILABLE, "busy");
+        MockServerWebExchange leader = exchange("/products/7");
+        MockServerWebExchange follower = exchange("/products/7");
+
+        Mono<Void> leading = filter.filter(leader, upstream).cache();
+        leading.subscribe();
+        Mono<Void> following = filter.filter(follower, upstream).cache();
+        following.subscribe();
+        upstreamResponds.tryEmitEmpty();
+        leading.block(Duration.ofSeconds(5));
+        following.block(Duration.ofSeconds(5));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, follower.getResponse().getStatusCode());
+        assertEquals("busy", follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void followerGoesUpstreamItselfWhenTheLeaderFails() {
+        AtomicInteger calls = new AtomicInteger();
+        GatewayFilterChain upstream = exchange -> calls.incrementAndGet() == 1
+                ? upstreamResponds.asMono().then(Mono.error(new IllegalStateException("connection reset")))
+                : write(exchange.getResponse(), HttpStatus.OK, "fresh");
+        MockServerWebExchange follower = exchange("/products/8");
+
+        filter.filter(exchange("/products/8"), upstream).onErrorResume(e -> Mono.empty()).subscribe();
+        Mono<Void> following = filter.filter(follower, upstream).cache();
+        following.subscribe();
+        upstreamResponds.tryEmitEmpty();
+        following.block(Duration.ofSeconds(5));
+
+        assertEquals(2, calls.get());
+        assertEquals("fresh", follower.getResponse().getBodyAsString().block());
+        assertEquals(1, meterRegistry.get("gateway.coalescing.requests").tag("role", "fallback").counter().count());
+    }
+
+    // Upstream that answers once the test lets it, so the second request arrives while the first is in flight
+    private GatewayFilterChain respondWith(HttpStatus status, String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamResponds.asMono().then(write(exchange.getResponse(), status, body));
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, HttpStatus status, String body) {
+        return Mono.defer(() -> {
+            response.setStatusCode(status);
+            return response.writeWith(Mono.just(
+                    response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        });
+    }
+
+    private static MockServerWebExchange exchange(String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("productservice").uri("lb://PRODUCTSERVICE").predicate(e -> true).build());
+        return exchange;
+    }
+}
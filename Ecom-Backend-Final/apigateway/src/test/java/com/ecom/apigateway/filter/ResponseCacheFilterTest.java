@@ -0,0 +1,108 @@
+package com.ecom.apigateway.filter;
+
+import com.ecom.apigateway.cache.ResponseCache;
+import com.ecom.apigateway.config.ResponseCacheProperties;
+import com.ecom.apigateway.kafka.CatalogEventConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCacheProperties properties = properties();
+    private final ResponseCache responseCache = new ResponseCache(properties, new SimpleMeterRegistry());
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(responseCache, properties);
+    private final CatalogEventConsumer catalogEvents = new CatalogEventConsumer(responseCache);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final GatewayFilterChain upstream = exchange -> {
+        int n = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory()
+                .wrap(("[{\"version\":" + n + "}]").getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @Test
+    void servesRepeatsFromTheCacheWithTheSameEtag() {
+        MockServerWebExchange miss = send("productservice", "/products?page=1", null);
+        MockServerWebExchange hit = send("productservice", "/products?page=1", null);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertNotNull(miss.getResponse().getHeaders().getETag());
+        assertEquals(miss.getResponse().getHeaders().getETag(), hit.getResponse().getHeaders().getETag());
+        assertEquals("[{\"version\":1}]", hit.getResponse().getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, hit.getResponse().getHeaders().getContentType());
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304() {
+        String etag = send("productservice", "/products/1", null).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated = send("productservice", "/products/1", etag);
+        MockServerWebExchange weak = send("productservice", "/products/1", "W/" + etag);
+        MockServerWebExchange stale = send("productservice", "/products/1", "\"something-else\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertEquals("", revalidated.getResponse().getBodyAsString().defaultIfEmpty("").block());
+        assertEquals(HttpStatus.NOT_MODIFIED, weak.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, stale.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void catalogEventsInvalidateTheAffectedRoutes() {
+        send("productservice", "/products/1", null);
+        send("categoryservice", "/categories", null);
+
+        catalogEvents.consumeCategoryCreated(Map.of("eventType", "CATEGORY_CREATED"));
+        send("productservice", "/products/1", null);
+        send("categoryservice", "/categories", null);
+        assertEquals(3, upstreamCalls.get());
+
+        catalogEvents.consumeProductEvent(Map.of("eventType", "PRODUCT_UPDATED"));
+        MockServerWebExchange product = send("productservice", "/products/1", null);
+        send("categoryservice", "/categories", null);
+        assertEquals(5, upstreamCalls.get());
+        assertEquals("MISS", product.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    private MockServerWebExchange send(String routeId, String uri, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId).uri("lb://" + routeId.toUpperCase()).predicate(e -> true).build());
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private static ResponseCacheProperties properties() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.getRoutes().put("productservice", Duration.ofMinutes(1));
+        properties.getRoutes().put("categoryservice", Duration.ofMinutes(5));
+        return properties;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecom.apigateway.hedge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgeBudgetTest {
+
+    @Test
+    void hedgesNeverExceedConfiguredShareOfRequests() {
+        HedgeBudget budget = new HedgeBudget(10);
+        int hedges = 0;
+        for (int i = 0; i < 10_000; i++) {
+            budget.deposit();
+            // Every request would like to hedge
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+        assertEquals(1_000, hedges);
+    }
+
+    @Test
+    void noHedgesBeforeAnyRequestsHaveDeposited() {
+        assertFalse(new HedgeBudget(10).tryWithdraw());
+    }
+
+    @Test
+    void refundedTokenCanBeWithdrawnAgain() {
+        HedgeBudget budget = new HedgeBudget(100);
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        budget.refund();
+        assertTrue(budget.tryWithdraw());
+    }
+}
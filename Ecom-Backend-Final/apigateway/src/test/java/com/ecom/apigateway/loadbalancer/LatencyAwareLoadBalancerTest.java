@@ -0,0 +1,91 @@
+package com.ecom.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates three PRODUCTSERVICE instances on a virtual clock, one of them degraded,
+ * and compares the p99 latency seen through round-robin and through the latency-aware balancer.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MS = 1_000_000L;
+    private static final int REQUESTS = 20_000;
+    private static final long ARRIVAL_INTERVAL = 2 * MS;
+
+    private final ServiceInstance fast1 = instance(8081);
+    private final ServiceInstance fast2 = instance(8082);
+    private final ServiceInstance slow = instance(8083);
+    private final List<ServiceInstance> instances = List.of(fast1, fast2, slow);
+
+    @Test
+    void latencyAwareBalancingLowersP99ComparedToRoundRobin() {
+        int[] next = {0};
+        long roundRobinP99 = simulate(newTracker(), now -> instances.get(next[0]++ % instances.size()));
+
+        InstanceLoadTracker tracker = newTracker();
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(null, tracker);
+        long latencyAwareP99 = simulate(tracker, now -> balancer.chooseInstance(instances, now));
+
+        // Round-robin sends a third of the traffic to the degraded instance, so its p99 is that instance's latency
+        assertEquals(300 * MS, roundRobinP99);
+        assertTrue(latencyAwareP99 < roundRobinP99,
+                "latency-aware p99 " + latencyAwareP99 / MS + "ms should beat round-robin " + roundRobinP99 / MS + "ms");
+        assertTrue(latencyAwareP99 <= 10 * MS, "degraded instance should be avoided for 99% of requests");
+    }
+
+    @Test
+    void prefersInstanceWithFewerOutstandingRequestsWhenLatenciesMatch() {
+        InstanceLoadTracker tracker = newTracker();
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(null, tracker);
+        tracker.onStart(fast1);
+        tracker.onComplete(fast1, 10 * MS, 0);
+        tracker.onStart(fast2);
+        tracker.onComplete(fast2, 10 * MS, 0);
+        for (int i = 0; i < 5; i++) {
+            tracker.onStart(fast1);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(fast2, balancer.chooseInstance(List.of(fast1, fast2), 0));
+        }
+    }
+
+    private long simulate(InstanceLoadTracker tracker, Function<Long, ServiceInstance> chooser) {
+        PriorityQueue<long[]> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * ARRIVAL_INTERVAL;
+            while (!inFlight.isEmpty() && inFlight.peek()[0] <= now) {
+                long[] done = inFlight.poll();
+                tracker.onComplete(instances.get((int) done[1]), done[2], done[0]);
+            }
+            ServiceInstance chosen = chooser.apply(now);
+            long latency = chosen == slow ? 300 * MS : 10 * MS;
+            tracker.onStart(chosen);
+            inFlight.add(new long[]{now + latency, instances.indexOf(chosen), latency});
+            latencies[i] = latency;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(REQUESTS * 0.99) - 1];
+    }
+
+    private static InstanceLoadTracker newTracker() {
+        return new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofMillis(100));
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("productservice-" + port, "PRODUCTSERVICE", "localhost", port, false);
+    }
+}
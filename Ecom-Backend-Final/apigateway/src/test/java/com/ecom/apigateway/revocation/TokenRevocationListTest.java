@@ -0,0 +1,39 @@
+package com.ecom.apigateway.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    @Test
+    void revokedTokensAreRejectedUntilTheyWouldHaveExpired() {
+        TokenRevocationList list = new TokenRevocationList(1_000, 0.001, new SimpleMeterRegistry());
+        long now = System.currentTimeMillis();
+        list.revoke("live", now + 60_000);
+        list.revoke("already-expired", now - 1);
+
+        assertTrue(list.isRevoked("live"));
+        assertFalse(list.isRevoked("already-expired"));
+        assertFalse(list.isRevoked("never-revoked"));
+        assertFalse(list.isRevoked(null));
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesAndKeepsLiveOnes() throws InterruptedException {
+        TokenRevocationList list = new TokenRevocationList(1_000, 0.001, new SimpleMeterRegistry());
+        long now = System.currentTimeMillis();
+        list.revoke("short", now + 20);
+        list.revoke("long", now + 60_000);
+        Thread.sleep(50);
+
+        list.purgeExpired();
+
+        assertEquals(1, list.size());
+        assertFalse(list.isRevoked("short"));
+        assertTrue(list.isRevoked("long"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecom.apigateway.util;
+
+import com.ecom.apigateway.filter.LoadTrackingFilter;
+import com.ecom.apigateway.loadbalancer.InstanceLoadTracker;
+import com.ecom.apigateway.metrics.GatewayMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class JwksKeySetTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesEcSigningKeysById() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        ECPublicKey publicKey = (ECPublicKey) pair.getPublic();
+
+        JsonNode jwks = objectMapper.valueToTree(Map.of("keys", List.of(
+                Map.of("kty", "EC", "crv", "P-256", "kid", "k1", "use", "sig",
+                        "x", coordinate(publicKey.getW().getAffineX()),
+                        "y", coordinate(publicKey.getW().getAffineY())),
+                Map.of("kty", "RSA", "kid", "rsa", "n", "AQAB", "e", "AQAB"),
+                Map.of("kty", "EC", "crv", "P-256", "kid", "broken", "x", "AA", "y", "AA"))));
+
+        Map<String, PublicKey> keys = JwksKeySet.parse(jwks);
+
+        assertEquals(1, keys.size());
+        assertTrue(keys.containsKey("k1"));
+        assertEquals(publicKey.getW(), ((ECPublicKey) keys.get("k1")).getW());
+    }
+
+    @Test
+    void rotatedOutKeyKeepsVerifyingUntilItsTokensExpire() throws Exception {
+        // No authservice behind it: the refresh an unknown kid triggers fails and leaves the set as it is
+        JwksKeySet keySet = new JwksKeySet(WebClient.builder(), mock(ReactorLoadBalancerExchangeFilterFunction.class),
+                new LoadTrackingFilter(new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofMillis(100)),
+                        new GatewayMetrics(new SimpleMeterRegistry())),
+                "http://AUTHSERVICE/.well-known/jwks.json", Duration.ofSeconds(2), Duration.ofDays(1),
+                Duration.ofMinutes(15), new SimpleMeterRegistry());
+        PublicKey oldKey = newPublicKey();
+        PublicKey newKey = newPublicKey();
+        long rotatedAt = 1_000_000L;
+
+        keySet.update(Map.of("old", oldKey), rotatedAt - 1000);
+        keySet.update(Map.of("new", newKey), rotatedAt);
+
+        assertSame(oldKey, keySet.getKey("old"));
+        assertSame(newKey, keySet.getKey("new"));
+
+        keySet.update(Map.of("new", newKey), rotatedAt + Duration.ofMinutes(15).toMillis());
+
+        assertNull(keySet.getKey("old"));
+        assertSame(newKey, keySet.getKey("new"));
+    }
+
+    private static PublicKey newPublicKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair().getPublic();
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecom.apigateway.util;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of the HS256 tokens authservice used to issue against the ES256 tokens it issues
+ * now, with the same claims authservice puts in an access token. Token sizes are printed during setup.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ecom.apigateway.util.JwtSigningBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong12345678";
+
+    private Key hmacKey;
+    private KeyPair ecKeyPair;
+    private JwtParser hs256Parser;
+    private JwtParser es256Parser;
+    private String hs256Token;
+    private String es256Token;
+
+    @Setup
+    public void setup() throws Exception {
+        hmacKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = generator.generateKeyPair();
+        hs256Parser = Jwts.parserBuilder().setSigningKey(hmacKey).build();
+        es256Parser = Jwts.parserBuilder().setSigningKey(ecKeyPair.getPublic()).build();
+        hs256Token = signHs256();
+        es256Token = signEs256();
+    }
+
+    @Benchmark
+    public String signHs256() {
+        return builder().signWith(hmacKey, SignatureAlgorithm.HS256).compact();
+    }
+
+    @Benchmark
+    public String signEs256() {
+        return builder()
+                .setHeaderParam("kid", "x0dBY1y1cYbO2tLEQdUYd4pxTnFk9mGMkN3ZP7iSGzw")
+                .signWith(ecKeyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+
+    @Benchmark
+    public Object verifyHs256() {
+        return hs256Parser.parseClaimsJws(hs256Token).getBody();
+    }
+
+    @Benchmark
+    public Object verifyEs256() {
+        return es256Parser.parseClaimsJws(es256Token).getBody();
+    }
+
+    private static JwtBuilder builder() {
+        return Jwts.builder()
+                .setClaims(Map.of("email", "user@example.com", "roles", "ROLE_USER"))
+                .setSubject("user")
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(15)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtSigningBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
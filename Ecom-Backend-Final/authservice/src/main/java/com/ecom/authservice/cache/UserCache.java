@@ -0,0 +1,124 @@
+package com.ecom.authservice.cache;
+
+import com.ecom.authservice.models.User;
+import com.ecom.authservice.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of {@link UserRepository#findByUsername}. Usernames that do not exist are remembered
+ * in a separate, short-lived negative cache, so sign-in attempts against missing accounts stop at memory and can
+ * never evict real users. Callers always get their own copy, because controllers modify the returned entity.
+ * Entries are invalidated on signup and profile updates; other authservice instances catch up within the TTLs.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+    private final Cache<String, Boolean> missing;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                     @Value("${auth.user-cache.ttl:10m}") Duration ttl,
+                     @Value("${auth.user-cache.negative-max-size:100000}") long negativeMaxSize,
+                     @Value("${auth.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.missing = Caffeine.newBuilder().maximumSize(negativeMaxSize).expireAfterWrite(negativeTtl).build();
+        this.hits = lookups(meterRegistry, "hit");
+        this.negativeHits = lookups(meterRegistry, "negative-hit");
+        this.misses = lookups(meterRegistry, "miss");
+        Gauge.builder("auth.user-cache.size", users, Cache::estimatedSize).register(meterRegistry);
+        Gauge.builder("auth.user-cache.negative.size", missing, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        if (missing.getIfPresent(username) != null) {
+            negativeHits.increment();
+            return Optional.empty();
+        }
+        boolean[] loaded = {false};
+        User user = users.get(username, key -> {
+            loaded[0] = true;
+            Optional<User> fromDb = userRepository.findByUsername(key);
+            if (fromDb.isEmpty()) {
+                missing.put(key, Boolean.TRUE);
+                return null;
+            }
+            return copyOf(fromDb.get());
+        });
+        (loaded[0] ? misses : hits).increment();
+        return Optional.ofNullable(user).map(UserCache::copyOf);
+    }
+
+    /** Call after any write to the user, including creation, so the next lookup reads the database. */
+    public void invalidate(String username) {
+        if (username != null) {
+            users.invalidate(username);
+            missing.invalidate(username);
+        }
+    }
+
+    public long size() {
+        return users.estimatedSize();
+    }
+
+    public long negativeSize() {
+        return missing.estimatedSize();
+    }
+
+    public long hitCount() {
+        return (long) hits.count();
+    }
+
+    public long negativeHitCount() {
+        return (long) negativeHits.count();
+    }
+
+    public long missCount() {
+        return (long) misses.count();
+    }
+
+    /** Share of lookups answered without a database query, negative hits included. */
+    public double hitRatio() {
+        double answered = hits.count() + negativeHits.count();
+        double total = answered + misses.count();
+        return total == 0 ? 1.0 : answered / total;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.user-cache.lookups")
+                .description("User lookups by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setEmail(user.getEmail());
+        copy.setRoles(user.getRoles());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setAddress(user.getAddress());
+        copy.setMobileNo(user.getMobileNo());
+        return copy;
+    }
+}
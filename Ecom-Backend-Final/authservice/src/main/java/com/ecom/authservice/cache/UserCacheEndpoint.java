@@ -0,0 +1,32 @@
+package com.ecom.authservice.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Exposes the user cache counters at /actuator/usercache
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    private final UserCache userCache;
+
+    public UserCacheEndpoint(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", userCache.size());
+        body.put("negativeSize", userCache.negativeSize());
+        body.put("hits", userCache.hitCount());
+        body.put("negativeHits", userCache.negativeHitCount());
+        body.put("misses", userCache.missCount());
+        body.put("hitRatio", userCache.hitRatio());
+        return body;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecom.authservice.cache;
+
+import com.ecom.authservice.repositories.UserRepository;
+import com.ecom.common.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every registered username, so signup can skip the existence query when a name is definitely
+ * free. Built by streaming the users table on startup and rebuilt periodically (which also picks up signups made on
+ * other authservice instances). Until the first build completes every name "might exist" and the query runs as
+ * before. The unique index on users.username stays the final arbiter.
+ */
+@Component
+public class UsernameBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final long minExpectedUsers;
+    private final double falsePositiveRate;
+    private final Counter skippedQueries;
+    private volatile BloomFilter filter;
+    // Names added while a rebuild streams the table; copied into the new filter before it is published
+    private Set<String> addedDuringRebuild;
+
+    public UsernameBloomFilter(UserRepository userRepository, MeterRegistry meterRegistry,
+                               @Value("${auth.username-filter.expected-users:1000000}") long minExpectedUsers,
+                               @Value("${auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.minExpectedUsers = minExpectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.skippedQueries = Counter.builder("auth.username-filter.skipped-queries")
+                .description("Signups whose existence query was skipped because the name was definitely free")
+                .register(meterRegistry);
+    }
+
+    /** False only when the username is certainly not registered (as of the last rebuild or a local signup). */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(username)) {
+            return true;
+        }
+        skippedQueries.increment();
+        return false;
+    }
+
+    public synchronized void add(String username) {
+        if (filter != null) {
+            filter.add(username);
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(username);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.username-filter.rebuild-interval:1h}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            addedDuringRebuild = new HashSet<>();
+        }
+        try {
+            long expected = Math.max(minExpectedUsers, 2 * userRepository.count());
+            BloomFilter rebuilt = new BloomFilter(expected, falsePositiveRate);
+            long loaded = 0;
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                for (String username : (Iterable<String>) usernames::iterator) {
+                    rebuilt.add(username);
+                    loaded++;
+                }
+            }
+            synchronized (this) {
+                addedDuringRebuild.forEach(rebuilt::add);
+                filter = rebuilt;
+            }
+            log.info("Username Bloom filter rebuilt with {} users ({} bits, {} hashes)",
+                    loaded, rebuilt.bitSize(), rebuilt.hashCount());
+        } finally {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+        }
+    }
+}
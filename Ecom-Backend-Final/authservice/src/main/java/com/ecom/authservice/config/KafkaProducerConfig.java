@@ -1,24 +1,40 @@
 package com.ecom.authservice.config;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import com.ecom.authservice.kafka.AuthEventProducer;
+
 @Configuration
 public class KafkaProducerConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${jwt.expiration:86400000}")
+    private long jwtExpirationMillis;
+
+    @Value("${jwt.hs256.accept:true}")
+    private boolean acceptHs256;
+
+    // HS256 tokens issued before the switch to ES256 were valid for 24 hours
+    @Value("${jwt.hs256.max-lifetime:24h}")
+    private Duration hs256MaxLifetime;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -36,4 +52,16 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    // Gateways replay this topic from the start when they boot, so keep revocations as long as any token still
+    // accepted can live, including legacy HS256 ones
+    @Bean
+    public NewTopic tokenRevokedTopic() {
+        long longestLifetime = acceptHs256 ? Math.max(jwtExpirationMillis, hs256MaxLifetime.toMillis())
+                : jwtExpirationMillis;
+        return TopicBuilder.name(AuthEventProducer.TOPIC_TOKEN_REVOKED)
+                .partitions(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(longestLifetime + 3_600_000L))
+                .build();
+    }
 }
@@ -1,17 +1,36 @@
 package com.ecom.authservice.controllers;
 
+import com.ecom.authservice.cache.UserCache;
+import com.ecom.authservice.cache.UsernameBloomFilter;
 import com.ecom.authservice.dto.JwtResponse;
+import com.ecom.authservice.dto.RefreshRequest;
 import com.ecom.authservice.kafka.AuthEventProducer;
 import com.ecom.authservice.models.User;
 import com.ecom.authservice.repositories.UserRepository;
+import com.ecom.authservice.security.PasswordHashingService;
+import com.ecom.authservice.services.RefreshTokenService;
+import com.ecom.authservice.services.UserProfileService;
 import com.ecom.authservice.util.JwtUtil;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class AuthController {
@@ -20,7 +39,13 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserCache userCache;
+
+    @Autowired
+    private UsernameBloomFilter usernameBloomFilter;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private AuthEventProducer authEventProducer;
@@ -28,65 +53,156 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    // Runs what follows a hash (database writes, Kafka) so the BCrypt threads go straight back to hashing
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
+
+    @Value("${auth.profile-batch.max-usernames:5000}")
+    private int maxBatchUsernames;
+
     @PostMapping("/signup")
-    public ResponseEntity<String> signup(@RequestBody User user) {
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
-            return ResponseEntity.badRequest().body("Username already exists");
+    public CompletableFuture<ResponseEntity<String>> signup(@RequestBody User user) {
+        // A definite "not registered" from the Bloom filter skips the query; the unique index catches the rest
+        if (usernameBloomFilter.mightExist(user.getUsername())
+                && userCache.findByUsername(user.getUsername()).isPresent()) {
+            return CompletableFuture.completedFuture(usernameTaken());
+        }
+        // BCrypt runs on the hashing pool; the request thread is released until the hash is ready
+        CompletableFuture<String> encoded;
+        try {
+            encoded = passwordHashingService.encode(user.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRoles("ROLE_USER");
-        User savedUser = userRepository.save(user);
-
-        // Publish USER_REGISTERED event to Kafka
-        authEventProducer.publishUserRegistered(
-                savedUser.getUsername(),
-                savedUser.getEmail(),
-                savedUser.getRoles()
-        );
-
-        return ResponseEntity.ok("User registered successfully");
+        return encoded.thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            user.setRoles("ROLE_USER");
+            User savedUser;
+            try {
+                savedUser = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                return usernameTaken();
+            }
+            userCache.invalidate(savedUser.getUsername());
+            usernameBloomFilter.add(savedUser.getUsername());
+
+            // Publish USER_REGISTERED event to Kafka
+            authEventProducer.publishUserRegistered(
+                    savedUser.getUsername(),
+                    savedUser.getEmail(),
+                    savedUser.getRoles()
+            );
+
+            return ResponseEntity.ok("User registered successfully");
+        }, taskExecutor);
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<?> signin(@RequestBody User user) {
-        Optional<User> existingUser = userRepository.findByUsername(user.getUsername());
-        if (existingUser.isPresent()) {
-            boolean matches = passwordEncoder.matches(user.getPassword(), existingUser.get().getPassword());
-            if (matches) {
-                User foundUser = existingUser.get();
-                
-                // Generate JWT token
-                String token = jwtUtil.generateToken(
+    public CompletableFuture<ResponseEntity<?>> signin(@RequestBody User user) {
+        Optional<User> existingUser = userCache.findByUsername(user.getUsername());
+        if (existingUser.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("Invalid credentials"));
+        }
+        User foundUser = existingUser.get();
+        CompletableFuture<Boolean> matches;
+        try {
+            matches = passwordHashingService.matches(user.getPassword(), foundUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+        return matches.thenApplyAsync(matched -> {
+            if (!matched) {
+                return ResponseEntity.status(401).body("Invalid credentials");
+            }
+
+            // Generate JWT token
+            String token = jwtUtil.generateToken(
+                foundUser.getUsername(),
+                foundUser.getEmail(),
+                foundUser.getRoles()
+            );
+
+            // Publish USER_LOGGED_IN event to Kafka
+            authEventProducer.publishUserLoggedIn(
                     foundUser.getUsername(),
                     foundUser.getEmail(),
                     foundUser.getRoles()
-                );
-                
-                // Publish USER_LOGGED_IN event to Kafka
-                authEventProducer.publishUserLoggedIn(
-                        foundUser.getUsername(),
-                        foundUser.getEmail(),
-                        foundUser.getRoles()
-                );
-                
-                // Return JWT response
-                JwtResponse response = new JwtResponse(
-                    token,
-                    foundUser.getUsername(),
-                    foundUser.getEmail(),
-                    foundUser.getRoles(),
-                    "Login successful"
-                );
-                
-                return ResponseEntity.ok(response);
-            }
+            );
+
+            // Return JWT response with a refresh token, so the client can renew without signing in again
+            JwtResponse response = new JwtResponse(
+                token,
+                refreshTokenService.issue(foundUser),
+                foundUser.getUsername(),
+                foundUser.getEmail(),
+                foundUser.getRoles(),
+                "Login successful"
+            );
+
+            return ResponseEntity.ok(response);
+        }, taskExecutor);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        if (request.getRefreshToken() == null || request.getRefreshToken().isBlank()) {
+            return ResponseEntity.badRequest().body("refreshToken is required");
+        }
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(request.getRefreshToken());
+        if (rotation.isEmpty()) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
         }
-        return ResponseEntity.status(401).body("Invalid credentials");
+        User user = rotation.get().user();
+        String token = jwtUtil.generateToken(user.getUsername(), user.getEmail(), user.getRoles());
+        return ResponseEntity.ok(new JwtResponse(
+                token,
+                rotation.get().refreshToken(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRoles(),
+                "Token refreshed"
+        ));
+    }
+
+    @PostMapping("/signout")
+    public ResponseEntity<String> signout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                          @RequestBody(required = false) RefreshRequest request) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body("Missing bearer token");
+        }
+        String token = authHeader.substring(7);
+        String tokenId;
+        try {
+            tokenId = jwtUtil.extractTokenId(token);
+        } catch (Exception e) {
+            return ResponseEntity.status(401).body("Invalid token");
+        }
+        if (tokenId == null) {
+            // Issued before tokens carried a jti; it cannot be revoked and simply expires
+            return ResponseEntity.badRequest().body("Token cannot be revoked");
+        }
+
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+
+        // Publish TOKEN_REVOKED so every gateway rejects the token until it expires
+        authEventProducer.publishTokenRevoked(tokenId, jwtUtil.extractUsername(token),
+                jwtUtil.extractExpiration(token).getTime());
+
+        return ResponseEntity.ok("Signed out successfully");
     }
 
     @GetMapping("/user/{username}")
     public ResponseEntity<User> getUser(@PathVariable String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Optional<User> userOpt = userCache.findByUsername(username);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             user.setPassword(null); // hide password
@@ -96,8 +212,27 @@ public class AuthController {
         }
     }
 
+    /**
+     * Profiles for up to auth.profile-batch.max-usernames users in one query, streamed as a JSON array.
+     * Unknown usernames are left out; the password is never selected.
+     */
+    @PostMapping("/users/batch")
+    public ResponseEntity<?> getUsers(@RequestBody List<String> usernames) {
+        Set<String> distinct = new LinkedHashSet<>(usernames);
+        distinct.remove(null);
+        if (distinct.size() > maxBatchUsernames) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchUsernames + " usernames per request");
+        }
+        if (distinct.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        StreamingResponseBody body = out -> userProfileService.writeProfiles(distinct, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PutMapping("/user/{username}")
     public ResponseEntity<String> updateUser(@PathVariable String username, @RequestBody User updatedUser) {
+        // Writes start from the current row, never the cached copy, which can be up to the cache TTL old
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
@@ -120,9 +255,21 @@ public class AuthController {
                 user.setMobileNo(updatedUser.getMobileNo());
             }
             userRepository.save(user);
+            userCache.invalidate(username);
             return ResponseEntity.ok("User updated successfully");
         } else {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<String> usernameTaken() {
+        return ResponseEntity.badRequest().body("Username already exists");
+    }
+
+    // The hashing queue is full: fail fast so clients back off instead of piling up behind BCrypt
+    private static ResponseEntity<String> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-in requests, please retry");
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecom.authservice.controllers;
+
+import com.ecom.authservice.util.SigningKeyProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Public keys for verifying access tokens; the gateway and productservice cache and refresh this set
+@RestController
+public class JwksController {
+
+    @Autowired
+    private SigningKeyProvider signingKeyProvider;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(Map.of("keys", List.of(signingKeyProvider.toJwk())));
+    }
+}
@@ -2,6 +2,7 @@ package com.ecom.authservice.dto;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String username;
     private String email;
     private String roles;
@@ -18,6 +19,12 @@ public class JwtResponse {
         this.message = message;
     }
 
+    public JwtResponse(String token, String refreshToken, String username, String email, String roles,
+                       String message) {
+        this(token, username, email, roles, message);
+        this.refreshToken = refreshToken;
+    }
+
     public String getToken() {
         return token;
     }
@@ -26,6 +33,14 @@ public class JwtResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getUsername() {
         return username;
     }
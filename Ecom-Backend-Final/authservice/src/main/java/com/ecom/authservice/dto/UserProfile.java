@@ -0,0 +1,8 @@
+package com.ecom.authservice.dto;
+
+/**
+ * Public profile fields of a user, selected directly by query so the password hash is never loaded.
+ */
+public record UserProfile(String username, String email, String firstName, String lastName,
+                          String address, String mobileNo) {
+}
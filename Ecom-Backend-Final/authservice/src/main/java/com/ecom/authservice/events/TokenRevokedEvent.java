@@ -0,0 +1,85 @@
+package com.ecom.authservice.events;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class TokenRevokedEvent {
+
+    private String eventId;
+    private String eventType; // TOKEN_REVOKED
+    private String tokenId;
+    private String username;
+    private long expiresAt; // epoch millis; consumers can forget the revocation after this
+    private LocalDateTime timestamp;
+
+    public TokenRevokedEvent() {
+    }
+
+    public TokenRevokedEvent(String tokenId, String username, long expiresAt) {
+        this.eventId = UUID.randomUUID().toString();
+        this.eventType = "TOKEN_REVOKED";
+        this.tokenId = tokenId;
+        this.username = username;
+        this.expiresAt = expiresAt;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenRevokedEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", tokenId='" + tokenId + '\'' +
+                ", username='" + username + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
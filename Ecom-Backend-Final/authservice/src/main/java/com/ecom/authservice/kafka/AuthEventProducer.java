@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import com.ecom.authservice.events.TokenRevokedEvent;
 import com.ecom.authservice.events.UserEvent;
 
 @Service
@@ -14,6 +15,7 @@ public class AuthEventProducer {
 
     private static final String TOPIC_USER_REGISTERED = "USER_REGISTERED";
     private static final String TOPIC_USER_LOGGED_IN = "USER_LOGGED_IN";
+    public static final String TOPIC_TOKEN_REVOKED = "TOKEN_REVOKED";
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
@@ -32,4 +34,10 @@ public class AuthEventProducer {
         log.info("Publishing USER_LOGGED_IN event: {}", event);
         kafkaTemplate.send(TOPIC_USER_LOGGED_IN, event.getEventId(), event);
     }
+
+    public void publishTokenRevoked(String tokenId, String username, long expiresAt) {
+        TokenRevokedEvent event = new TokenRevokedEvent(tokenId, username, expiresAt);
+        log.info("Publishing TOKEN_REVOKED event: {}", event);
+        kafkaTemplate.send(TOPIC_TOKEN_REVOKED, tokenId, event);
+    }
 }
@@ -1,14 +1,33 @@
 package com.ecom.authservice.repositories;
 
+import com.ecom.authservice.dto.UserProfile;
 import com.ecom.authservice.models.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 //data access interface for the user entities
 //JPA repo -- inherits a set of standard CRUD (Create, Read, Update, Delete) operations like save(), findById(), delete(), etc.
 //additionally findByUsername method is added
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result set.
+    // Must be consumed inside a transaction and closed.
+    @Query("SELECT u.username FROM User u")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    Stream<String> streamAllUsernames();
+
+    // One IN query over the unique username index, without the password column; streamed like the above
+    @Query("SELECT new com.ecom.authservice.dto.UserProfile(u.username, u.email, u.firstName, u.lastName, "
+            + "u.address, u.mobileNo) FROM User u WHERE u.username IN :usernames")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    Stream<UserProfile> streamProfiles(@Param("usernames") Collection<String> usernames);
 }
 
 
@@ -0,0 +1,40 @@
+package com.ecom.authservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength for this host: the highest cost whose hash still fits in the target time, but never
+ * below the configured minimum. Each extra unit of strength doubles the work, so calibration stops at the first
+ * strength over the target and costs at most about twice the target at startup.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        // Warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(strength).encode(SAMPLE_PASSWORD);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.info("BCrypt strength {} takes {} ms on this host", strength, elapsed.toMillis());
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("Using BCrypt strength {} for a target hash time of {} ms", chosen, target.toMillis());
+        return chosen;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecom.authservice.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -13,13 +14,21 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.ecom.authservice.services.CustomUserDetailsService;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityConfig {
 
     // PasswordEncoder Bean
     @Bean //beans are objects managed by spring container, singleton scoped by default, meaning only one instance exists in the Spring context per application.
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.bcrypt.target-hash-time:100ms}") Duration targetHashTime,
+                                           @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.bcrypt.max-strength:14}") int maxStrength) {
+        // A fixed strength skips calibration; existing hashes keep verifying at whatever cost they were made with
+        int chosen = strength > 0 ? strength
+                : BCryptStrengthCalibrator.calibrate(targetHashTime, minStrength, maxStrength);
+        return new BCryptPasswordEncoder(chosen);
     }
 
     // UserDetailsService Bean
@@ -56,7 +65,11 @@ public class SecurityConfig {
             
             // Configure endpoints that are public
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/signup", "/signin", "/h2-console/**").permitAll()
+                .requestMatchers("/signup", "/signin", "/refresh", "/h2-console/**").permitAll()
+                // Authenticated by the bearer token being revoked, checked in the controller
+                .requestMatchers("/signout").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .anyRequest().authenticated()
             )
             // Enable HTTP Basic authentication
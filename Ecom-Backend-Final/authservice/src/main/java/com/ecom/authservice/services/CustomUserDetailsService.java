@@ -1,7 +1,7 @@
 package com.ecom.authservice.services;
 
+import com.ecom.authservice.cache.UserCache;
 import com.ecom.authservice.models.User;
-import com.ecom.authservice.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,15 +12,15 @@ import java.util.stream.Collectors;
 
 //This class implements Spring Security's UserDetailsService interface, which is a core component
 //in configuring authentication in Spring Security.
-//It fetches user data from your database (via UserRepository) based on the username provided during login.
+//It fetches user data from your database (via UserCache in front of UserRepository) based on the username provided during login.
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                       .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         return new org.springframework.security.core.userdetails.User(
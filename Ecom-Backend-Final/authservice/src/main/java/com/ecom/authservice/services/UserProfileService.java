@@ -0,0 +1,57 @@
+package com.ecom.authservice.services;
+
+import com.ecom.authservice.dto.UserProfile;
+import com.ecom.authservice.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Writes the profiles of many users as a JSON array straight from the database cursor, so memory use does not
+ * grow with the batch size. Unknown usernames are simply absent from the output.
+ */
+@Service
+public class UserProfileService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter profileWriter;
+
+    public UserProfileService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        // Flushing is batched below rather than after every profile
+        this.profileWriter = objectMapper.writerFor(UserProfile.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeProfiles(Collection<String> usernames, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<UserProfile> profiles = userRepository.streamProfiles(usernames)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            int written = 0;
+            for (UserProfile profile : (Iterable<UserProfile>) profiles::iterator) {
+                profileWriter.writeValue(json, profile);
+                if (++written % FLUSH_EVERY == 0) {
+                    json.flush();
+                }
+            }
+            json.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
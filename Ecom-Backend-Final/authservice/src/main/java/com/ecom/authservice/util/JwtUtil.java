@@ -1,9 +1,13 @@
 package com.ecom.authservice.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,31 +15,55 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SigningKeyProvider signingKeyProvider;
+    private final Key hmacKey;
+    private final boolean signWithHs256;
+    private final boolean acceptHs256;
+    private final long expiration;
+    // Built once: keys are resolved per token from its header, and the parser is thread-safe
+    private final JwtParser parser;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private Long expiration;
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(SigningKeyProvider signingKeyProvider,
+                   @Value("${jwt.secret}") String secret,
+                   @Value("${jwt.signing.algorithm:ES256}") String algorithm,
+                   @Value("${jwt.hs256.accept:true}") boolean acceptHs256,
+                   @Value("${jwt.expiration:86400000}") long expiration) { // 24 hours in milliseconds
+        this.signingKeyProvider = signingKeyProvider;
+        this.hmacKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.signWithHs256 = "HS256".equalsIgnoreCase(algorithm);
+        this.acceptHs256 = acceptHs256 || signWithHs256;
+        this.expiration = expiration;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyFor(header);
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username, String email, String roles) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
         claims.put("roles", roles);
-        
-        return Jwts.builder()
+
+        var builder = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration));
+        if (signWithHs256) {
+            return builder.signWith(hmacKey, SignatureAlgorithm.HS256).compact();
+        }
+        return builder.setHeaderParam(JwsHeader.KEY_ID, signingKeyProvider.getKeyId())
+                .signWith(signingKeyProvider.getPrivateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
@@ -51,16 +79,30 @@ public class JwtUtil {
         return (String) extractClaims(token).get("roles");
     }
 
+    /** The jti claim; revocations are published by this id. */
+    public String extractTokenId(String token) {
+        return extractClaims(token).getId();
+    }
+
     public Date extractExpiration(String token) {
         return extractClaims(token).getExpiration();
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // HS256 stays verifiable while tokens signed before the switch to ES256 are still live
+    private Key keyFor(JwsHeader<?> header) {
+        String algorithm = header.getAlgorithm();
+        if (SignatureAlgorithm.ES256.getValue().equals(algorithm)
+                && signingKeyProvider.getKeyId().equals(header.getKeyId())) {
+            return signingKeyProvider.getPublicKey();
+        }
+        if (SignatureAlgorithm.HS256.getValue().equals(algorithm) && acceptHs256) {
+            return hmacKey;
+        }
+        throw new SignatureException("Unknown signing key " + header.getKeyId() + " for " + algorithm);
     }
 
     public Boolean isTokenExpired(String token) {
@@ -0,0 +1,108 @@
+package com.ecom.authservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The P-256 key pair authservice signs access tokens with (ES256). Configure a stable pair with
+ * jwt.signing.private-key / jwt.signing.public-key (base64 PKCS#8 / X.509 DER); without them startup fails. Only
+ * with jwt.signing.allow-ephemeral=true (local development) is a throwaway pair generated instead, which invalidates
+ * outstanding access tokens on restart and differs between instances.
+ * The key id is the RFC 7638 JWK thumbprint, so verifiers can match tokens to keys from the JWKS endpoint.
+ */
+@Component
+public class SigningKeyProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyProvider.class);
+    private static final int COORDINATE_BYTES = 32;
+
+    private final ECPrivateKey privateKey;
+    private final ECPublicKey publicKey;
+    private final String keyId;
+
+    public SigningKeyProvider(@Value("${jwt.signing.private-key:}") String encodedPrivateKey,
+                              @Value("${jwt.signing.public-key:}") String encodedPublicKey,
+                              @Value("${jwt.signing.allow-ephemeral:false}") boolean allowEphemeral)
+            throws GeneralSecurityException {
+        if (encodedPrivateKey.isBlank() || encodedPublicKey.isBlank()) {
+            if (!allowEphemeral) {
+                throw new IllegalStateException("No jwt.signing key pair configured: set JWT_SIGNING_PRIVATE_KEY and "
+                        + "JWT_SIGNING_PUBLIC_KEY (or jwt.signing.allow-ephemeral=true for local development)");
+            }
+            log.warn("No jwt.signing key pair configured, generating an ephemeral ES256 key");
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            this.privateKey = (ECPrivateKey) pair.getPrivate();
+            this.publicKey = (ECPublicKey) pair.getPublic();
+        } else {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            this.privateKey = (ECPrivateKey) keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(encodedPrivateKey)));
+            this.publicKey = (ECPublicKey) keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getMimeDecoder().decode(encodedPublicKey)));
+        }
+        this.keyId = thumbprint(publicKey);
+    }
+
+    public ECPrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public ECPublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /** The public key as a JWK (RFC 7517/7518). */
+    public Map<String, Object> toJwk() {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        return jwk;
+    }
+
+    private static String thumbprint(ECPublicKey key) throws GeneralSecurityException {
+        // Required members in lexicographic order, no whitespace (RFC 7638 section 3)
+        String canonical = "{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"" + coordinate(key.getW().getAffineX())
+                + "\",\"y\":\"" + coordinate(key.getW().getAffineY()) + "\"}";
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    // Unsigned, left-padded to the field size as JWK requires
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecom.authservice.cache;
+
+import com.ecom.authservice.models.User;
+import com.ecom.authservice.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserCache cache = new UserCache(repository, new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(10), 100, Duration.ofMinutes(1));
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        when(repository.findByUsername("alice")).thenReturn(Optional.of(user("alice")));
+
+        cache.findByUsername("alice");
+        cache.findByUsername("alice");
+        cache.findByUsername("alice");
+
+        verify(repository, times(1)).findByUsername("alice");
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void unknownUsernamesAreNegativelyCachedUntilSignup() {
+        when(repository.findByUsername("ghost")).thenReturn(Optional.empty());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.findByUsername("ghost").isEmpty());
+        }
+        verify(repository, times(1)).findByUsername("ghost");
+        assertEquals(4, cache.negativeHitCount());
+
+        when(repository.findByUsername("ghost")).thenReturn(Optional.of(user("ghost")));
+        cache.invalidate("ghost");
+        assertTrue(cache.findByUsername("ghost").isPresent());
+    }
+
+    @Test
+    void callersCannotModifyTheCachedUser() {
+        when(repository.findByUsername("alice")).thenReturn(Optional.of(user("alice")));
+
+        cache.findByUsername("alice").get().setPassword(null);
+
+        assertEquals("hash", cache.findByUsername("alice").get().getPassword());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(username);
+        user.setPassword("hash");
+        user.setRoles("ROLE_USER");
+        return user;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecom.authservice.cache;
+
+import com.ecom.authservice.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameBloomFilterTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UsernameBloomFilter filter = new UsernameBloomFilter(repository, new SimpleMeterRegistry(), 1000, 0.001);
+
+    @Test
+    void everyNameMightExistUntilTheFirstBuild() {
+        assertTrue(filter.mightExist("anyone"));
+    }
+
+    @Test
+    void registeredAndNewlyAddedNamesAreNeverReportedFree() {
+        when(repository.count()).thenReturn(500L);
+        when(repository.streamAllUsernames()).thenReturn(IntStream.range(0, 500).mapToObj(i -> "user" + i));
+        filter.rebuild();
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(filter.mightExist("user" + i));
+        }
+        assertFalse(filter.mightExist("brand-new-user"));
+
+        filter.add("brand-new-user");
+        assertTrue(filter.mightExist("brand-new-user"));
+    }
+
+    @Test
+    void rebuildKeepsNamesAddedWhileStreaming() {
+        when(repository.count()).thenReturn(1L);
+        when(repository.streamAllUsernames()).thenReturn(Stream.of("alice").peek(name -> filter.add("late-signup")));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist("alice"));
+        assertTrue(filter.mightExist("late-signup"));
+    }
+}
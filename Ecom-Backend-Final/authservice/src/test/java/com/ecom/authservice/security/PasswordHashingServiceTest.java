@@ -0,0 +1,61 @@
+package com.ecom.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(slowEncoder, registry, 1, 1);
+
+        CompletableFuture<String> running = service.encode("a");
+        CompletableFuture<String> queued = service.encode("b");
+        assertThrows(RejectedExecutionException.class, () -> service.encode("c"));
+        assertEquals(1, registry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash:a", running.get());
+        assertEquals("hash:b", queued.get());
+        service.shutdown();
+    }
+
+    @Test
+    void calibrationStaysWithinConfiguredBounds() {
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(1), 4, 6);
+        assertEquals(4, strength);
+
+        strength = BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(10), 4, 6);
+        assertEquals(6, strength);
+        assertTrue(new BCryptPasswordEncoder(strength).encode("x").startsWith("$2a$06$"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecom.authservice.services;
+
+import com.ecom.authservice.models.RefreshToken;
+import com.ecom.authservice.models.User;
+import com.ecom.authservice.repositories.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, Duration.ofDays(30));
+
+    @Test
+    void storesOnlyTheHashOfIssuedTokens() {
+        User user = user();
+        String raw = service.issue(user);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertNotEquals(raw, saved.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), saved.getValue().getTokenHash());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void rotationIssuesANewTokenInTheSameFamily() {
+        RefreshToken current = stored("family-1", Instant.now().plusSeconds(60));
+        when(repository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(current));
+        when(repository.markUsed(eq(current.getId()), any())).thenReturn(1);
+
+        Optional<RefreshTokenService.Rotation> rotation = service.rotate("raw");
+
+        assertTrue(rotation.isPresent());
+        assertNotEquals("raw", rotation.get().refreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        RefreshToken current = stored("family-2", Instant.now().plusSeconds(60));
+        when(repository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(current));
+        when(repository.markUsed(eq(current.getId()), any())).thenReturn(0);
+
+        assertTrue(service.rotate("raw").isEmpty());
+        verify(repository).deleteByFamilyId("family-2");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void expiredTokensAreNotRotated() {
+        RefreshToken current = stored("family-3", Instant.now().minusSeconds(1));
+        when(repository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(current));
+
+        assertTrue(service.rotate("raw").isEmpty());
+        verify(repository, never()).markUsed(any(), any());
+    }
+
+    private static RefreshToken stored(String familyId, Instant expiresAt) {
+        return new RefreshToken("hash", familyId, user(), Instant.now(), expiresAt);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        return user;
+    }
+}
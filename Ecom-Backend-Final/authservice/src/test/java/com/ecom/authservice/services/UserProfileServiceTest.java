@@ -0,0 +1,36 @@
+package com.ecom.authservice.services;
+
+import com.ecom.authservice.dto.UserProfile;
+import com.ecom.authservice.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserProfileServiceTest {
+
+    @Test
+    void writesEveryProfileAsOneJsonArrayWithoutPasswords() throws Exception {
+        UserRepository repository = mock(UserRepository.class);
+        List<String> usernames = IntStream.range(0, 1200).mapToObj(i -> "user" + i).toList();
+        when(repository.streamProfiles(usernames)).thenReturn(usernames.stream()
+                .map(name -> new UserProfile(name, name + "@example.com", "First", "Last", "Street 1", "555")));
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new UserProfileService(repository, objectMapper).writeProfiles(usernames, out);
+
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertEquals(1200, array.size());
+        assertEquals("user7@example.com", array.get(7).get("email").asText());
+        assertFalse(array.get(0).has("password"));
+    }
+}
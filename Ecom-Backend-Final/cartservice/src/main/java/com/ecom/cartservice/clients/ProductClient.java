@@ -1,12 +1,17 @@
 package com.ecom.cartservice.clients;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.ecom.cartservice.dto.ProductDTO;
+import com.ecom.cartservice.dto.ReservationDTO;
+import com.ecom.cartservice.dto.ReservationRequestDTO;
 
 @FeignClient(name = "productservice")
 public interface ProductClient {
@@ -17,6 +22,15 @@ public interface ProductClient {
 
 	@PutMapping("/products/{id}/reduce-stock")
 	    void reduceStock(@PathVariable Long id, @RequestParam Integer quantity);
+
+	@PostMapping("/products/reservations")
+	ReservationDTO reserve(@RequestBody ReservationRequestDTO request);
+
+	@PostMapping("/products/reservations/{id}/confirm")
+	ReservationDTO confirmReservation(@PathVariable("id") String id);
+
+	@DeleteMapping("/products/reservations/{id}")
+	void releaseReservation(@PathVariable("id") String id);
 	
 
 }
@@ -2,7 +2,10 @@ package com.ecom.cartservice.controllers;
 
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,14 +20,19 @@ import com.ecom.cartservice.clients.OrderClient;
 import com.ecom.cartservice.clients.ProductClient;
 import com.ecom.cartservice.dto.OrderRequestDTO;
 import com.ecom.cartservice.dto.ProductDTO;
+import com.ecom.cartservice.dto.ReservationRequestDTO;
 import com.ecom.cartservice.models.CartItem;
 import com.ecom.cartservice.repositories.CartRepository;
 import com.ecom.cartservice.kafka.CartEventProducer;
 
+import feign.FeignException;
+
 @RestController
 @RequestMapping("/cart")
 public class CartController {
 
+    private static final Logger log = LoggerFactory.getLogger(CartController.class);
+
     @Autowired
     private CartRepository cartRepository;
 
@@ -50,6 +58,13 @@ public class CartController {
         item.setProductName(product.getName());
         item.setPrice(product.getPrice());
 
+        // Hold the stock now so checkout cannot fail late on an item that looked available
+        try {
+            item.setReservationId(reserve(item.getProductId(), item.getQuantity()));
+        } catch (FeignException.Conflict e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Insufficient stock");
+        }
+
         CartItem savedItem = cartRepository.save(item);
         
         // Publish Kafka event
@@ -73,8 +88,10 @@ public class CartController {
         }
 
         for (CartItem item : cartItems) {
-            // Reduce stock
-            productClient.reduceStock(item.getProductId(), item.getQuantity());
+            // Take the held stock, or reduce it directly if the item has no hold or the hold has expired
+            if (!confirmReservation(item)) {
+                productClient.reduceStock(item.getProductId(), item.getQuantity());
+            }
 
             // Create order
             OrderRequestDTO order = new OrderRequestDTO();
@@ -104,7 +121,20 @@ public class CartController {
     public ResponseEntity<CartItem> updateCartItem(@PathVariable Long id, @RequestBody CartItem updatedItem) {
         return cartRepository.findById(id)
                 .map(item -> {
-                    item.setQuantity(updatedItem.getQuantity());
+                    // An update without a quantity leaves the item and its hold as they are
+                    Integer quantity = updatedItem.getQuantity();
+                    if (quantity != null && !quantity.equals(item.getQuantity())) {
+                        // Hold the new quantity before giving up the old hold
+                        String reservationId;
+                        try {
+                            reservationId = reserve(item.getProductId(), quantity);
+                        } catch (FeignException.Conflict e) {
+                            return ResponseEntity.status(HttpStatus.CONFLICT).<CartItem>build();
+                        }
+                        releaseReservation(item);
+                        item.setReservationId(reservationId);
+                        item.setQuantity(quantity);
+                    }
                     CartItem saved = cartRepository.save(item);
                     
                     // Publish Kafka event
@@ -135,6 +165,7 @@ public class CartController {
                         item.getPrice()
                     );
                     
+                    releaseReservation(item);
                     cartRepository.delete(item);
                     return ResponseEntity.noContent().build();
                 })
@@ -146,8 +177,49 @@ public class CartController {
     public ResponseEntity<Void> clearCart(@PathVariable String username) {
         // Publish Kafka event before clearing
         cartEventProducer.publishCartCleared(username);
+
+        cartRepository.findByUsername(username).forEach(this::releaseReservation);
         
         cartRepository.deleteByUsername(username);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Holds stock for a cart item. Returns null when the product does not support holds (hot-SKU products are sold
+     * straight from stock at checkout); throws FeignException.Conflict when there is not enough stock.
+     */
+    private String reserve(Long productId, Integer quantity) {
+        try {
+            return productClient.reserve(new ReservationRequestDTO(productId, quantity, null)).getId();
+        } catch (FeignException.UnprocessableEntity e) {
+            return null;
+        }
+    }
+
+    // True if the item's hold was turned into a sale
+    private boolean confirmReservation(CartItem item) {
+        if (item.getReservationId() == null) {
+            return false;
+        }
+        try {
+            productClient.confirmReservation(item.getReservationId());
+            return true;
+        } catch (FeignException.Conflict | FeignException.NotFound e) {
+            log.info("Reservation {} for cart item {} expired, reducing stock directly", item.getReservationId(),
+                    item.getId());
+            return false;
+        }
+    }
+
+    // Best effort: a hold that cannot be released now simply expires
+    private void releaseReservation(CartItem item) {
+        if (item.getReservationId() == null) {
+            return;
+        }
+        try {
+            productClient.releaseReservation(item.getReservationId());
+        } catch (FeignException e) {
+            log.warn("Could not release reservation {}: {}", item.getReservationId(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.ecom.cartservice.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class ReservationDTO {
+    private String id;
+    private Long productId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+}
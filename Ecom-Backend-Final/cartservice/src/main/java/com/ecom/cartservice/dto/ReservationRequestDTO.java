@@ -0,0 +1,14 @@
+package com.ecom.cartservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequestDTO {
+    private Long productId;
+    private Integer quantity;
+    private Long ttlSeconds;
+}
@@ -45,6 +45,12 @@ public class CartItem {
 	public void setQuantity(Integer quantity) {
 		this.quantity = quantity;
 	}
+	public String getReservationId() {
+		return reservationId;
+	}
+	public void setReservationId(String reservationId) {
+		this.reservationId = reservationId;
+	}
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -54,4 +60,5 @@ public class CartItem {
     private String productName;
     private Double price;
     private Integer quantity;
+    private String reservationId; // Stock hold in productservice, confirmed at checkout
 }
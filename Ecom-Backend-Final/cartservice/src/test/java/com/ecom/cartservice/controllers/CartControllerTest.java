@@ -0,0 +1,158 @@
+package com.ecom.cartservice.controllers;
+
+import com.ecom.cartservice.clients.OrderClient;
+import com.ecom.cartservice.clients.ProductClient;
+import com.ecom.cartservice.dto.OrderRequestDTO;
+import com.ecom.cartservice.dto.ProductDTO;
+import com.ecom.cartservice.dto.ReservationDTO;
+import com.ecom.cartservice.dto.ReservationRequestDTO;
+import com.ecom.cartservice.kafka.CartEventProducer;
+import com.ecom.cartservice.models.CartItem;
+import com.ecom.cartservice.repositories.CartRepository;
+import feign.FeignException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The cart's side of stock reservations: a hold per item, swapped when the quantity changes, released when the
+ * item leaves the cart and confirmed at checkout.
+ */
+@ExtendWith(MockitoExtension.class)
+class CartControllerTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private OrderClient orderClient;
+
+    @Mock
+    private CartEventProducer cartEventProducer;
+
+    @InjectMocks
+    private CartController cartController;
+
+    @Test
+    void addingAnItemHoldsItsStock() {
+        when(productClient.getProductById(7L)).thenReturn(product(7L));
+        when(productClient.reserve(any(ReservationRequestDTO.class))).thenReturn(reservation("r-1"));
+        when(cartRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<?> response = cartController.addToCart(item(null, 7L, 2, null));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("r-1", ((CartItem) response.getBody()).getReservationId());
+    }
+
+    @Test
+    void addingAnItemWithoutEnoughStockIsRejected() {
+        when(productClient.getProductById(7L)).thenReturn(product(7L));
+        when(productClient.reserve(any(ReservationRequestDTO.class))).thenThrow(FeignException.Conflict.class);
+
+        ResponseEntity<?> response = cartController.addToCart(item(null, 7L, 2, null));
+
+        assertEquals(409, response.getStatusCode().value());
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void changingTheQuantityHoldsTheNewOneBeforeReleasingTheOld() {
+        CartItem item = item(1L, 7L, 2, "r-old");
+        when(cartRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(productClient.reserve(any(ReservationRequestDTO.class))).thenReturn(reservation("r-new"));
+        when(cartRepository.save(item)).thenReturn(item);
+
+        ResponseEntity<CartItem> response = cartController.updateCartItem(1L, item(null, null, 5, null));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(5, item.getQuantity());
+        assertEquals("r-new", item.getReservationId());
+        verify(productClient).releaseReservation("r-old");
+    }
+
+    @Test
+    void updateWithoutQuantityKeepsTheHold() {
+        CartItem item = item(1L, 7L, 2, "r-1");
+        when(cartRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(cartRepository.save(item)).thenReturn(item);
+
+        ResponseEntity<CartItem> response = cartController.updateCartItem(1L, new CartItem());
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, item.getQuantity());
+        assertEquals("r-1", item.getReservationId());
+        verify(productClient, never()).reserve(any());
+        verify(productClient, never()).releaseReservation(any());
+    }
+
+    @Test
+    void removingAnItemReleasesItsHold() {
+        CartItem item = item(1L, 7L, 2, "r-1");
+        when(cartRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        cartController.removeCartItem(1L);
+
+        verify(productClient).releaseReservation("r-1");
+        verify(cartRepository).delete(item);
+    }
+
+    @Test
+    void checkoutConfirmsHoldsAndReducesStockForExpiredOnes() {
+        CartItem held = item(1L, 7L, 2, "r-1");
+        CartItem expired = item(2L, 8L, 3, "r-2");
+        when(cartRepository.findByUsername("alice")).thenReturn(List.of(held, expired));
+        when(productClient.confirmReservation("r-1")).thenReturn(reservation("r-1"));
+        when(productClient.confirmReservation("r-2")).thenThrow(FeignException.Conflict.class);
+
+        ResponseEntity<String> response = cartController.placeOrderFromCart("alice");
+
+        assertEquals(200, response.getStatusCode().value());
+        verify(productClient, never()).reduceStock(7L, 2);
+        verify(productClient).reduceStock(8L, 3);
+        verify(orderClient, times(2)).placeOrder(any(OrderRequestDTO.class));
+        verify(cartRepository).deleteByUsername("alice");
+    }
+
+    private static CartItem item(Long id, Long productId, Integer quantity, String reservationId) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setUsername("alice");
+        item.setProductId(productId);
+        item.setProductName("product");
+        item.setPrice(10.0);
+        item.setQuantity(quantity);
+        item.setReservationId(reservationId);
+        return item;
+    }
+
+    private static ProductDTO product(Long id) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("product");
+        product.setPrice(10.0);
+        return product;
+    }
+
+    private static ReservationDTO reservation(String id) {
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setId(id);
+        return reservation;
+    }
+}
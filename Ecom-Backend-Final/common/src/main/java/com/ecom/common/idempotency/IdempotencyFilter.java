@@ -0,0 +1,208 @@
+package com.ecom.common.idempotency;
+
+import com.ecom.common.security.TrustedIdentityFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Honors the Idempotency-Key header on the configured POST paths. The first request with a key executes; its
+ * response (2xx or 4xx, with all its headers) is kept in the {@link IdempotencyStore} and replayed to retries with
+ * the same key. A duplicate that arrives while the first is still running gets 409 with Retry-After rather than
+ * holding a thread. Keys are scoped to the caller, and reusing a key with a different body is rejected with 422.
+ * 5xx responses are not stored, so the client may retry.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_REPLAYED = "Idempotent-Replayed";
+    /** Request attribute with the caller-scoped key, for handlers that pass it on to an upstream API. */
+    public static final String KEY_ATTRIBUTE = "idempotencyKey";
+    private static final int MAX_KEY_LENGTH = 255;
+    // Recomputed on replay
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.DATE.toLowerCase());
+
+    private final IdempotencyStore store;
+    private final List<String> paths;
+
+    public IdempotencyFilter(IdempotencyStore store, List<String> paths) {
+        this.store = store;
+        this.paths = paths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !paths.contains(request.getServletPath())
+                || request.getHeader(HEADER_IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER_IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid Idempotency-Key");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        Object user = request.getAttribute(TrustedIdentityFilter.USER_NAME_ATTRIBUTE);
+        String scopedKey = sha256((user != null ? user : "anonymous") + ":" + request.getServletPath() + ":" + key);
+        String fingerprint = sha256(cachedRequest.body);
+
+        IdempotencyStore.Claim claim = store.claim(scopedKey, fingerprint);
+        switch (claim.state()) {
+            case ACQUIRED -> execute(cachedRequest, response, filterChain, scopedKey, claim.token());
+            case COMPLETED -> replay(claim.response(), response);
+            case MISMATCH -> response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Idempotency-Key was already used with a different request body");
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.CONFLICT.value(), "A request with this Idempotency-Key is in progress");
+            }
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String scopedKey, String token) throws ServletException, IOException {
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        request.setAttribute(KEY_ATTRIBUTE, scopedKey);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, capturing);
+            int status = capturing.getStatus();
+            if (status < 500) {
+                // Once the request has run, the key stays claimed even if storing fails: a retry must not run it again
+                stored = true;
+                try {
+                    store.complete(scopedKey, token,
+                            new StoredResponse(status, headersOf(capturing), capturing.getContentAsByteArray()));
+                } catch (RuntimeException e) {
+                    log.warn("Could not store response for idempotent request: {}", e.getMessage());
+                }
+            }
+            capturing.copyBodyToResponse();
+        } finally {
+            if (!stored) {
+                store.release(scopedKey, token);
+            }
+        }
+    }
+
+    private static HttpHeaders headersOf(ContentCachingResponseWrapper response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : response.getHeaderNames()) {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        if (!headers.containsKey(HttpHeaders.CONTENT_TYPE) && response.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, response.getContentType());
+        }
+        return headers;
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        log.debug("Replaying stored response for idempotent request");
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(HEADER_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Reads the body once so it can be fingerprinted and still be read by the controller. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once and the read ends right after
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecom.common.idempotency;
+
+/**
+ * Where {@link IdempotencyFilter} records which keys have run and what they returned. A store shared by all
+ * instances of a service (see {@link JdbcIdempotencyStore}) is what makes a retry that lands on another instance
+ * a replay rather than a second execution.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for a new execution. If it is already claimed, reports whether that request is still running,
+     * has finished (with its stored response), or was made with a different body.
+     */
+    Claim claim(String key, String fingerprint);
+
+    /** Stores the response of the execution holding {@code token}, for replay until the key expires. */
+    void complete(String key, String token, StoredResponse response);
+
+    /** Frees the key after an execution that should not be replayed (5xx or exception), so the client may retry. */
+    void release(String key, String token);
+
+    record Claim(State state, String token, StoredResponse response) {
+
+        public enum State { ACQUIRED, IN_PROGRESS, COMPLETED, MISMATCH }
+
+        public static Claim acquired(String token) {
+            return new Claim(State.ACQUIRED, token, null);
+        }
+
+        public static Claim completed(StoredResponse response) {
+            return new Claim(State.COMPLETED, null, response);
+        }
+
+        public static Claim inProgress() {
+            return new Claim(State.IN_PROGRESS, null, null);
+        }
+
+        public static Claim mismatch() {
+            return new Claim(State.MISMATCH, null, null);
+        }
+    }
+}
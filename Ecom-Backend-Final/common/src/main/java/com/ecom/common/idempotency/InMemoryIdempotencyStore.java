@@ -0,0 +1,50 @@
+package com.ecom.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Keys held in this instance only. Suitable where duplicates across instances are caught further down (e.g. by
+ * an idempotency key on the upstream API); otherwise use {@link JdbcIdempotencyStore}.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxEntries) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        Entry entry = new Entry(fingerprint, UUID.randomUUID().toString(), null);
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing == null) {
+            return Claim.acquired(entry.token);
+        }
+        if (!existing.fingerprint.equals(fingerprint)) {
+            return Claim.mismatch();
+        }
+        return existing.response != null ? Claim.completed(existing.response) : Claim.inProgress();
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        entries.asMap().computeIfPresent(key, (k, entry) ->
+                entry.token.equals(token) ? new Entry(entry.fingerprint, token, response) : entry);
+    }
+
+    @Override
+    public void release(String key, String token) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.token.equals(token) ? null : entry);
+    }
+
+    private record Entry(String fingerprint, String token, StoredResponse response) {
+    }
+}
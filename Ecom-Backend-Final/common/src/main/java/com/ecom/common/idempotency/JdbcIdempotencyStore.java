@@ -0,0 +1,131 @@
+package com.ecom.common.idempotency;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keys in a table shared by every instance of the service; the primary key on the key column is what lets only
+ * one instance claim it. A claim whose instance died without finishing is taken over once {@code lockTimeout} has
+ * passed, and expired keys are reused in place or removed by {@link #purgeExpired()}.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore, InitializingBean {
+
+    private static final String TABLE = "idempotency_keys";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lockTimeout) {
+        this(jdbcTemplate, ttl, lockTimeout, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lockTimeout, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "idempotency_key VARCHAR(64) NOT NULL PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, "
+                + "claim_token VARCHAR(36) NOT NULL, "
+                + "status INT NULL, "
+                + "headers TEXT NULL, "
+                + "body LONGBLOB NULL, "
+                + "locked_until BIGINT NOT NULL, "
+                + "expires_at BIGINT NOT NULL)");
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        long now = clock.millis();
+        String token = UUID.randomUUID().toString();
+        try {
+            jdbcTemplate.update("INSERT INTO " + TABLE
+                            + " (idempotency_key, fingerprint, claim_token, locked_until, expires_at) VALUES (?, ?, ?, ?, ?)",
+                    key, fingerprint, token, now + lockTimeout.toMillis(), now + ttl.toMillis());
+            return Claim.acquired(token);
+        } catch (DuplicateKeyException e) {
+            // Claimed before; fall through to see by whom and how far it got
+        }
+
+        // An expired key, or a claim abandoned by an instance that died, can be taken over
+        int taken = jdbcTemplate.update("UPDATE " + TABLE
+                        + " SET fingerprint = ?, claim_token = ?, status = NULL, headers = NULL, body = NULL,"
+                        + " locked_until = ?, expires_at = ?"
+                        + " WHERE idempotency_key = ? AND (expires_at < ? OR (status IS NULL AND locked_until < ?))",
+                fingerprint, token, now + lockTimeout.toMillis(), now + ttl.toMillis(), key, now, now);
+        if (taken == 1) {
+            return Claim.acquired(token);
+        }
+
+        List<Claim> existing = jdbcTemplate.query("SELECT fingerprint, status, headers, body FROM " + TABLE
+                        + " WHERE idempotency_key = ?",
+                (rs, row) -> {
+                    if (!rs.getString("fingerprint").equals(fingerprint)) {
+                        return Claim.mismatch();
+                    }
+                    int status = rs.getInt("status");
+                    if (rs.wasNull()) {
+                        return Claim.inProgress();
+                    }
+                    return Claim.completed(new StoredResponse(status, decodeHeaders(rs.getString("headers")),
+                            rs.getBytes("body")));
+                }, key);
+        // Deleted by a release in between: report it as running so the client retries shortly
+        return existing.isEmpty() ? Claim.inProgress() : existing.get(0);
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        jdbcTemplate.update("UPDATE " + TABLE + " SET status = ?, headers = ?, body = ?, expires_at = ?"
+                        + " WHERE idempotency_key = ? AND claim_token = ?",
+                response.status(), encodeHeaders(response.headers()), response.body(),
+                clock.millis() + ttl.toMillis(), key, token);
+    }
+
+    @Override
+    public void release(String key, String token) {
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE idempotency_key = ? AND claim_token = ? AND status IS NULL",
+                key, token);
+    }
+
+    /** Removes expired keys; returns how many. */
+    public int purgeExpired() {
+        return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE expires_at < ?", clock.millis());
+    }
+
+    // One "Name: value" line per header value; header values cannot contain line breaks
+    static String encodeHeaders(HttpHeaders headers) {
+        StringBuilder encoded = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value ->
+                encoded.append(name).append(": ").append(value).append('\n')));
+        return encoded.toString();
+    }
+
+    static HttpHeaders decodeHeaders(String encoded) {
+        HttpHeaders headers = new HttpHeaders();
+        if (encoded == null) {
+            return headers;
+        }
+        for (String line : encoded.split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                headers.add(line.substring(0, colon), line.substring(colon + 2));
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecom.common.idempotency;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A response kept for replay to retries of the same idempotent request: status, every header the handler set,
+ * and the body.
+ */
+public record StoredResponse(int status, HttpHeaders headers, byte[] body) {
+}
@@ -0,0 +1,29 @@
+package com.ecom.common.security;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Copies the caller's signed identity headers onto Feign calls made while handling a request, so the service
+ * called next accepts them like a request from the gateway. The signature covers only name, roles and expiry,
+ * so it stays valid across hops until the token it was issued for expires.
+ */
+public class IdentityForwardingInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        for (String header : TrustedIdentityFilter.IDENTITY_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                template.header(header, value);
+            }
+        }
+    }
+}
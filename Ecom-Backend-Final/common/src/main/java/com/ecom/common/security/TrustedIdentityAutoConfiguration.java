@@ -0,0 +1,44 @@
+package com.ecom.common.security;
+
+import feign.RequestInterceptor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link TrustedIdentityFilter} in every servlet service that sets {@code gateway.identity.secret}, and
+ * forwards the identity on its Feign calls.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "gateway.identity", name = "secret")
+@EnableConfigurationProperties(TrustedIdentityProperties.class)
+public class TrustedIdentityAutoConfiguration {
+
+    // Runs ahead of the services' own filters so they can rely on the verified identity
+    public static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    @Bean
+    public FilterRegistrationBean<TrustedIdentityFilter> trustedIdentityFilter(TrustedIdentityProperties properties) {
+        FilterRegistrationBean<TrustedIdentityFilter> registration =
+                new FilterRegistrationBean<>(new TrustedIdentityFilter(properties));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignIdentityConfiguration {
+
+        @Bean
+        public IdentityForwardingInterceptor identityForwardingInterceptor() {
+            return new IdentityForwardingInterceptor();
+        }
+    }
+}
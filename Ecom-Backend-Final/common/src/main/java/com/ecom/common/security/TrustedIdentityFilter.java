@@ -0,0 +1,119 @@
+package com.ecom.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Accepts the signed X-User-* identity headers added by the API gateway after it has verified the JWT, so a
+ * service can authorize without parsing the token again. Verified values are exposed as the request attributes
+ * {@link #USER_NAME_ATTRIBUTE} and {@link #USER_ROLES_ATTRIBUTE}.
+ * <p>
+ * Every route behind the gateway requires a JWT, so a request without a signature did not come through it: when
+ * identity is required such requests get a 401 unless their path is exempt. Calls between services forward the
+ * caller's signed headers (see {@link IdentityForwardingInterceptor}). A bad or expired signature is always a 401.
+ */
+public class TrustedIdentityFilter extends OncePerRequestFilter {
+
+    public static final String USER_NAME_ATTRIBUTE = "trustedUserName";
+    public static final String USER_ROLES_ATTRIBUTE = "trustedUserRoles";
+
+    public static final String HEADER_USER_NAME = "X-User-Name";
+    public static final String HEADER_USER_ROLES = "X-User-Roles";
+    public static final String HEADER_USER_EXPIRES = "X-User-Expires";
+    public static final String HEADER_USER_SIGNATURE = "X-User-Signature";
+    static final List<String> IDENTITY_HEADERS =
+            List.of(HEADER_USER_NAME, HEADER_USER_ROLES, HEADER_USER_EXPIRES, HEADER_USER_SIGNATURE);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final boolean required;
+    private final List<String> exemptPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // Mac is not thread-safe; one initialised instance per request thread
+    private final ThreadLocal<Mac> mac;
+
+    public TrustedIdentityFilter(TrustedIdentityProperties properties) {
+        this.required = properties.isRequired();
+        this.exemptPaths = List.copyOf(properties.getExemptPaths());
+        SecretKeySpec key = new SecretKeySpec(properties.getSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return exemptPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(HEADER_USER_SIGNATURE);
+        if (signature == null) {
+            if (required) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Missing identity headers");
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String username = request.getHeader(HEADER_USER_NAME);
+        String roles = request.getHeader(HEADER_USER_ROLES);
+        String expires = request.getHeader(HEADER_USER_EXPIRES);
+        if (username == null || expires == null || !isValid(username, roles, expires, signature)) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Invalid identity headers");
+            return;
+        }
+
+        request.setAttribute(USER_NAME_ATTRIBUTE, username);
+        request.setAttribute(USER_ROLES_ATTRIBUTE, roles != null ? roles : "");
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isValid(String username, String roles, String expires, String signature) {
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (System.currentTimeMillis() / 1000 >= expiresAt) {
+            return false;
+        }
+
+        String payload = username + '\n' + (roles != null ? roles : "") + '\n' + expiresAt;
+        byte[] expected = Arrays.copyOf(mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, actual);
+    }
+}
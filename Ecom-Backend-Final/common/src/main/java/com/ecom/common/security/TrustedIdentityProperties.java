@@ -0,0 +1,46 @@
+package com.ecom.common.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "gateway.identity")
+public class TrustedIdentityProperties {
+
+    /** HMAC secret shared with the API gateway. */
+    private String secret;
+
+    /**
+     * Whether requests must carry the gateway's signed identity. Off only for running a service on its own in
+     * development; with it on, a caller that bypasses the gateway gets a 401.
+     */
+    private boolean required = true;
+
+    /** Ant-style paths served without an identity, e.g. health checks and metrics scraping. */
+    private List<String> exemptPaths = new ArrayList<>(List.of("/actuator/**", "/error"));
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public void setRequired(boolean required) {
+        this.required = required;
+    }
+
+    public List<String> getExemptPaths() {
+        return exemptPaths;
+    }
+
+    public void setExemptPaths(List<String> exemptPaths) {
+        this.exemptPaths = exemptPaths;
+    }
+}
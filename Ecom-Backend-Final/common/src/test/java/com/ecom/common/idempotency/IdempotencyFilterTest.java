@@ -0,0 +1,162 @@
+package com.ecom.common.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private final IdempotencyFilter filter =
+            new IdempotencyFilter(new InMemoryIdempotencyStore(Duration.ofHours(1), 1000), List.of("/orders"));
+
+    private final FilterChain placeOrder = (request, response) -> {
+        int n = executions.incrementAndGet();
+        request.getInputStream().readAllBytes();
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(201);
+        http.setContentType("application/json");
+        http.setHeader("Location", "/orders/" + n);
+        http.getWriter().write("{\"id\":" + n + "}");
+    };
+
+    @Test
+    void retryReplaysStoredResponse() throws Exception {
+        MockHttpServletResponse first = post("key-1", "{\"productId\":1}");
+        MockHttpServletResponse retry = post("key-1", "{\"productId\":1}");
+
+        assertEquals(1, executions.get());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.HEADER_REPLAYED));
+        assertNull(first.getHeader(IdempotencyFilter.HEADER_REPLAYED));
+    }
+
+    @Test
+    void replayKeepsStatusAndHeaders() throws Exception {
+        post("key-6", "{\"productId\":6}");
+        MockHttpServletResponse retry = post("key-6", "{\"productId\":6}");
+
+        assertEquals(201, retry.getStatus());
+        assertEquals("/orders/1", retry.getHeader("Location"));
+        assertTrue(retry.getContentType().startsWith("application/json"));
+    }
+
+    @Test
+    void concurrentDuplicatesExecuteOnceAndDoNotWait() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return post("key-2", "{\"productId\":2}");
+                }));
+            }
+            start.countDown();
+            int conflicts = 0;
+            for (Future<MockHttpServletResponse> response : responses) {
+                MockHttpServletResponse r = response.get();
+                if (r.getStatus() == 409) {
+                    assertEquals("1", r.getHeader("Retry-After"));
+                    conflicts++;
+                } else {
+                    assertEquals("{\"id\":1}", r.getContentAsString());
+                }
+            }
+            assertTrue(conflicts > 0);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void reusingKeyWithDifferentBodyIsRejected() throws Exception {
+        post("key-3", "{\"productId\":3}");
+        MockHttpServletResponse response = post("key-3", "{\"productId\":4}");
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() throws Exception {
+        post(null, "{\"productId\":5}");
+        post(null, "{\"productId\":5}");
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void bodyCanBeReadWithReadListener() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.setServletPath("/orders");
+        request.setContent("{\"productId\":7}".getBytes(StandardCharsets.UTF_8));
+        request.addHeader(IdempotencyFilter.HEADER_IDEMPOTENCY_KEY, "key-7");
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+            });
+        });
+
+        assertEquals("{\"productId\":7}", read.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead.get());
+    }
+
+    private MockHttpServletResponse post(String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.setServletPath("/orders");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER_IDEMPOTENCY_KEY, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, placeOrder);
+        return response;
+    }
+}
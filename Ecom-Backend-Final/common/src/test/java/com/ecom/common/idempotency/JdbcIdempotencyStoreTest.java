@@ -0,0 +1,112 @@
+package com.ecom.common.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JdbcIdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private JdbcIdempotencyStore first;
+    private JdbcIdempotencyStore second;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Two instances of the service sharing one table
+        first = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(24), Duration.ofMinutes(1), clock);
+        second = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(24), Duration.ofMinutes(1), clock);
+        first.afterPropertiesSet();
+        second.afterPropertiesSet();
+    }
+
+    @Test
+    void onlyOneInstanceClaimsAKeyAndTheOtherReplaysItsResponse() {
+        IdempotencyStore.Claim claim = first.claim("k1", "f1");
+        assertEquals(IdempotencyStore.Claim.State.ACQUIRED, claim.state());
+        assertEquals(IdempotencyStore.Claim.State.IN_PROGRESS, second.claim("k1", "f1").state());
+        assertEquals(IdempotencyStore.Claim.State.MISMATCH, second.claim("k1", "other").state());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Location", "/orders/7");
+        headers.add("Set-Cookie", "a=1");
+        headers.add("Set-Cookie", "b=2");
+        byte[] body = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+        first.complete("k1", claim.token(), new StoredResponse(201, headers, body));
+
+        IdempotencyStore.Claim replay = second.claim("k1", "f1");
+        assertEquals(IdempotencyStore.Claim.State.COMPLETED, replay.state());
+        assertEquals(201, replay.response().status());
+        assertEquals(headers, replay.response().headers());
+        assertArrayEquals(body, replay.response().body());
+    }
+
+    @Test
+    void releasedKeyCanBeClaimedAgain() {
+        IdempotencyStore.Claim claim = first.claim("k2", "f");
+        first.release("k2", claim.token());
+
+        assertEquals(IdempotencyStore.Claim.State.ACQUIRED, second.claim("k2", "f").state());
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverAfterLockTimeout() {
+        IdempotencyStore.Claim abandoned = first.claim("k3", "f");
+        clock.advance(Duration.ofMinutes(2));
+
+        IdempotencyStore.Claim takeover = second.claim("k3", "f");
+        assertEquals(IdempotencyStore.Claim.State.ACQUIRED, takeover.state());
+
+        // The original owner finishing late must not overwrite the new claim
+        first.complete("k3", abandoned.token(), new StoredResponse(200, new HttpHeaders(), new byte[0]));
+        assertEquals(IdempotencyStore.Claim.State.IN_PROGRESS, first.claim("k3", "f").state());
+    }
+
+    @Test
+    void expiredKeysArePurged() {
+        IdempotencyStore.Claim claim = first.claim("k4", "f");
+        first.complete("k4", claim.token(), new StoredResponse(200, new HttpHeaders(), new byte[0]));
+        clock.advance(Duration.ofHours(25));
+
+        assertEquals(1, first.purgeExpired());
+        assertEquals(IdempotencyStore.Claim.State.ACQUIRED, second.claim("k4", "f").state());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecom.common.security;
+
+import feign.RequestTemplate;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrustedIdentityFilterTest {
+
+    private static final String SECRET = "test-identity-secret-that-is-long-enough";
+
+    private final AtomicReference<Object> seenUser = new AtomicReference<>();
+    private final FilterChain chain = (request, response) ->
+            seenUser.set(request.getAttribute(TrustedIdentityFilter.USER_NAME_ATTRIBUTE));
+
+    @AfterEach
+    void resetRequestContext() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void signedRequestExposesIdentity() throws Exception {
+        MockHttpServletResponse response = run(filter(true), signed("/products/1", "alice", "ROLE_USER"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("alice", seenUser.get());
+    }
+
+    @Test
+    void unsignedRequestIsRejectedWhenIdentityIsRequired() throws Exception {
+        MockHttpServletResponse response = run(filter(true), request("/products/1"));
+
+        assertEquals(401, response.getStatus());
+        assertNull(seenUser.get());
+    }
+
+    @Test
+    void exemptPathsAndOptionalModeLetUnsignedRequestsThrough() throws Exception {
+        assertEquals(200, run(filter(true), request("/actuator/prometheus")).getStatus());
+        assertEquals(200, run(filter(false), request("/products/1")).getStatus());
+    }
+
+    @Test
+    void tamperedOrExpiredSignatureIsRejected() throws Exception {
+        MockHttpServletRequest tampered = signed("/products/1", "alice", "ROLE_USER");
+        tampered.removeHeader(TrustedIdentityFilter.HEADER_USER_ROLES);
+        tampered.addHeader(TrustedIdentityFilter.HEADER_USER_ROLES, "ROLE_ADMIN");
+        assertEquals(401, run(filter(false), tampered).getStatus());
+
+        MockHttpServletRequest expired = request("/products/1");
+        long past = System.currentTimeMillis() / 1000 - 1;
+        expired.addHeader(TrustedIdentityFilter.HEADER_USER_NAME, "alice");
+        expired.addHeader(TrustedIdentityFilter.HEADER_USER_ROLES, "ROLE_USER");
+        expired.addHeader(TrustedIdentityFilter.HEADER_USER_EXPIRES, Long.toString(past));
+        expired.addHeader(TrustedIdentityFilter.HEADER_USER_SIGNATURE, sign("alice", "ROLE_USER", past));
+        assertEquals(401, run(filter(false), expired).getStatus());
+    }
+
+    @Test
+    void feignCallsCarryTheCallersIdentity() {
+        MockHttpServletRequest incoming = signed("/cart/alice/checkout", "alice", "ROLE_USER");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+        RequestTemplate outgoing = new RequestTemplate();
+
+        new IdentityForwardingInterceptor().apply(outgoing);
+
+        for (String header : TrustedIdentityFilter.IDENTITY_HEADERS) {
+            assertEquals(List.of(incoming.getHeader(header)), List.copyOf(outgoing.headers().get(header)));
+        }
+    }
+
+    private MockHttpServletResponse run(TrustedIdentityFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static TrustedIdentityFilter filter(boolean required) {
+        TrustedIdentityProperties properties = new TrustedIdentityProperties();
+        properties.setSecret(SECRET);
+        properties.setRequired(required);
+        return new TrustedIdentityFilter(properties);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static MockHttpServletRequest signed(String path, String user, String roles) {
+        MockHttpServletRequest request = request(path);
+        long expires = System.currentTimeMillis() / 1000 + 60;
+        request.addHeader(TrustedIdentityFilter.HEADER_USER_NAME, user);
+        request.addHeader(TrustedIdentityFilter.HEADER_USER_ROLES, roles);
+        request.addHeader(TrustedIdentityFilter.HEADER_USER_EXPIRES, Long.toString(expires));
+        request.addHeader(TrustedIdentityFilter.HEADER_USER_SIGNATURE, sign(user, roles, expires));
+        return request;
+    }
+
+    // Same format as the gateway's IdentityHeaderSigner
+    private static String sign(String user, String roles, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] hmac = mac.doFinal((user + '\n' + roles + '\n' + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hmac, 16));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
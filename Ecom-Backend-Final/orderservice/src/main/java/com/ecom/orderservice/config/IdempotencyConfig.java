@@ -0,0 +1,54 @@
+package com.ecom.orderservice.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.ecom.common.idempotency.IdempotencyFilter;
+import com.ecom.common.idempotency.JdbcIdempotencyStore;
+
+/**
+ * Idempotency-Key handling for POST /orders. Keys live in the order database, so a retry that reaches another
+ * instance replays the first response instead of placing the order again.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public JdbcIdempotencyStore idempotencyStore(JdbcTemplate jdbcTemplate,
+                                                 @Value("${idempotency.ttl:24h}") Duration ttl,
+                                                 @Value("${idempotency.lock-timeout:1m}") Duration lockTimeout) {
+        return new JdbcIdempotencyStore(jdbcTemplate, ttl, lockTimeout);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(JdbcIdempotencyStore idempotencyStore,
+                                               @Value("${idempotency.paths:/orders}") List<String> paths) {
+        return new IdempotencyFilter(idempotencyStore, paths);
+    }
+
+    @Bean
+    public IdempotencyPurge idempotencyPurge(JdbcIdempotencyStore idempotencyStore) {
+        return new IdempotencyPurge(idempotencyStore);
+    }
+
+    static class IdempotencyPurge {
+
+        private final JdbcIdempotencyStore store;
+
+        IdempotencyPurge(JdbcIdempotencyStore store) {
+            this.store = store;
+        }
+
+        @Scheduled(fixedDelayString = "${idempotency.purge-interval:1h}",
+                initialDelayString = "${idempotency.purge-interval:1h}")
+        public void purge() {
+            store.purgeExpired();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.stripepayment.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ecom.common.idempotency.IdempotencyFilter;
+import com.ecom.common.idempotency.IdempotencyStore;
+import com.ecom.common.idempotency.InMemoryIdempotencyStore;
+
+/**
+ * Idempotency-Key handling for POST /payments/create. This service has no database, so replays are per instance;
+ * a retry that reaches another instance is deduplicated by Stripe instead, since the controller sends the same
+ * key with the PaymentIntent.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(@Value("${idempotency.ttl:24h}") Duration ttl,
+                                             @Value("${idempotency.max-entries:100000}") long maxEntries) {
+        return new InMemoryIdempotencyStore(ttl, maxEntries);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore,
+                                               @Value("${idempotency.paths:/payments/create}") List<String> paths) {
+        return new IdempotencyFilter(idempotencyStore, paths);
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.stripepayment.controller;
 
+import com.ecom.common.idempotency.IdempotencyFilter;
 import com.example.stripepayment.kafka.PaymentEventProducer;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,7 +23,9 @@ public class PaymentController {
     }
 
     @PostMapping("/create")
-    public ResponseEntity<Map<String, String>> createPayment(@RequestBody Map<String, Object> data) throws StripeException {
+    public ResponseEntity<Map<String, String>> createPayment(@RequestBody Map<String, Object> data,
+            @RequestAttribute(name = IdempotencyFilter.KEY_ATTRIBUTE, required = false) String idempotencyKey)
+            throws StripeException {
         Object amountObj = data.get("amount");
         Long amount;
         if (amountObj instanceof Number) {
@@ -38,7 +42,12 @@ public class PaymentController {
             .setCurrency(currency)
             .build();
 
-        PaymentIntent intent = PaymentIntent.create(params);
+        // A retry with the same Idempotency-Key gets the same PaymentIntent back from Stripe, whichever instance
+        // it reaches, and so publishes the same event id below
+        RequestOptions options = idempotencyKey != null
+            ? RequestOptions.builder().setIdempotencyKey(idempotencyKey).build()
+            : RequestOptions.getDefault();
+        PaymentIntent intent = PaymentIntent.create(params, options);
 
         // Extract order info from request for Kafka event
         String username = data.get("username") != null ? data.get("username").toString() : "unknown";
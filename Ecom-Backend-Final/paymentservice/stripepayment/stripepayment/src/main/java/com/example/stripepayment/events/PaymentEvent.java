@@ -20,7 +20,8 @@ public class PaymentEvent {
 
     public PaymentEvent(String username, Long productId, Integer quantity,
             Long amountPaid, String currency, String paymentIntentId) {
-        this.eventId = UUID.randomUUID().toString();
+        // One success per PaymentIntent, so a retried payment yields the same event id and Order Service skips it
+        this.eventId = paymentIntentId != null ? "PAYMENT_SUCCESS:" + paymentIntentId : UUID.randomUUID().toString();
         this.eventType = "PAYMENT_SUCCESS";
         this.username = username;
         this.productId = productId;
@@ -0,0 +1,88 @@
+package com.ecom.productservice.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * inventory.hot-sku.* settings. Products listed in {@code product-ids} keep their stock in memory behind a
+ * single writer and reach MySQL in group commits every {@code flush-interval}; all other products are unaffected.
+ * <p>
+ * The writer's counter is per JVM: a product may be listed on exactly one productservice instance, and every
+ * decrement for it must be routed there. Two instances listing the same product would each sell the full stock.
+ */
+@Component
+@ConfigurationProperties(prefix = "inventory.hot-sku")
+public class HotSkuProperties {
+
+    private Set<Long> productIds = new LinkedHashSet<>();
+    private Duration flushInterval = Duration.ofMillis(50);
+    private int queueCapacity = 10_000;
+    /** Most commands applied (and journaled) as one group. */
+    private int maxBatch = 1024;
+    /** How long a caller waits for room in a full queue before being turned away. */
+    private Duration enqueueTimeout = Duration.ofMillis(100);
+    private Path journalDir = Path.of("data", "hot-sku-journal");
+    /** Force each journal group to disk before confirming it; without it a power loss can lose confirmed sales. */
+    private boolean fsync = true;
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(Set<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public Duration getEnqueueTimeout() {
+        return enqueueTimeout;
+    }
+
+    public void setEnqueueTimeout(Duration enqueueTimeout) {
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    public Path getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(Path journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+}
@@ -1,8 +1,10 @@
 package com.ecom.productservice.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,6 +21,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.ecom.productservice.models.Product;
 import com.ecom.productservice.repositories.ProductRepository;
 import com.ecom.productservice.kafka.ProductEventProducer;
+import com.ecom.productservice.services.HotSkuStock;
+import com.ecom.productservice.services.ProductListing;
+import com.ecom.productservice.services.StockDecrement;
+import com.ecom.productservice.services.StockService;
 
 @RestController
 @RequestMapping("/products")
@@ -30,6 +36,15 @@ public class ProductController {
     @Autowired
     private ProductEventProducer productEventProducer;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private HotSkuStock hotSkuStock;
+
+    @Autowired
+    private ProductListing productListing;
+
     // Create
     @PostMapping
     public ResponseEntity<Product> addProduct(@RequestBody Product product) {
@@ -47,10 +62,17 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved); // 201 Created
     }
 
-    // View all
+    // View all: /products?limit=20&sort=price,desc&cursor=... pages through lightweight summaries.
+    // Without any of these parameters it is the first page by id, never the whole catalog.
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productRepository.findAll());
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(productListing.page(limit, cursor, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // ✅ Batch fetch for Category Service: /products?ids=1,2,3
@@ -63,65 +85,79 @@ public class ProductController {
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         return productRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(product -> {
+                    // Report a hot product's confirmed stock rather than the last flushed value
+                    if (hotSkuStock.isHot(id)) {
+                        product.setQuantity(hotSkuStock.available(id) + product.getReservedQuantity());
+                    }
+                    return ResponseEntity.ok(product);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Update
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product updatedProduct) {
-        return productRepository.findById(id).map(product -> {
-            if (updatedProduct.getName() != null) {
-                product.setName(updatedProduct.getName());
-            }
-            if (updatedProduct.getDescription() != null) {
-                product.setDescription(updatedProduct.getDescription());
-            }
-            if (updatedProduct.getPrice() != null) {
-                product.setPrice(updatedProduct.getPrice());
-            }
-            if (updatedProduct.getQuantity() != null) {
-                product.setQuantity(updatedProduct.getQuantity());
-            }
-            if (updatedProduct.getCategory() != null) {
-                product.setCategory(updatedProduct.getCategory());
-            }
-            
-            Product saved = productRepository.save(product);
-            
-            // Publish Kafka event
-            productEventProducer.publishProductUpdated(
-                saved.getId(), 
-                saved.getName(), 
-                saved.getCategory(), 
-                saved.getPrice(), 
-                saved.getQuantity()
-            );
-            
-            return ResponseEntity.ok(saved);
-        }).orElse(ResponseEntity.notFound().build());
+        // A hot product's stock lives with its writer: flush it and hold decrements while the row is rewritten
+        Optional<Product> updated = hotSkuStock.isHot(id)
+                ? hotSkuStock.runExclusive(id, () -> update(id, updatedProduct))
+                : update(id, updatedProduct);
+        if (updated.isEmpty()) {
+            // Either there is no such product or the new quantity is below what reservations hold
+            return productRepository.existsById(id)
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                    : ResponseEntity.notFound().build();
+        }
+        Product saved = updated.get();
+
+        // Publish Kafka event
+        productEventProducer.publishProductUpdated(
+            saved.getId(), 
+            saved.getName(), 
+            saved.getCategory(), 
+            saved.getPrice(), 
+            saved.getQuantity()
+        );
+
+        return ResponseEntity.ok(saved);
+    }
+
+    // Writes only the edited columns, so a concurrent sale or reservation is not overwritten
+    private Optional<Product> update(Long id, Product updatedProduct) {
+        int updated = productRepository.updateDetails(id, updatedProduct.getName(), updatedProduct.getDescription(),
+                updatedProduct.getPrice(), updatedProduct.getQuantity(), updatedProduct.getCategory());
+        return updated == 1 ? productRepository.findById(id) : Optional.empty();
     }
 
     // Reduce stock
     @PutMapping("/{id}/reduce-stock")
     public ResponseEntity<?> reduceStock(@PathVariable Long id, @RequestParam Integer quantity) {
-        return productRepository.findById(id).map(product -> {
-            if (product.getQuantity() < quantity) {
-                return ResponseEntity.badRequest().body("Insufficient stock");
-            }
-            product.setQuantity(product.getQuantity() - quantity);
-            Product saved = productRepository.save(product);
-            
-            // Publish Kafka event
-            productEventProducer.publishProductStockReduced(
-                saved.getId(), 
-                saved.getName(), 
-                saved.getCategory(), 
-                saved.getQuantity()
-            );
-            
-            return ResponseEntity.ok(saved);
-        }).orElse(ResponseEntity.notFound().build());
+        if (quantity == null || quantity <= 0) {
+            return ResponseEntity.badRequest().body("Quantity must be positive");
+        }
+        StockDecrement result = stockService.decrement(id, quantity);
+        if (result.outcome() == StockDecrement.Outcome.BUSY) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Stock is busy, retry shortly");
+        }
+        if (result.outcome() == StockDecrement.Outcome.NOT_FOUND) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!result.succeeded()) {
+            return ResponseEntity.badRequest().body("Insufficient stock");
+        }
+        Product saved = result.product();
+
+        // Publish Kafka event
+        productEventProducer.publishProductStockReduced(
+            saved.getId(), 
+            saved.getName(), 
+            saved.getCategory(), 
+            saved.getQuantity()
+        );
+
+        return ResponseEntity.ok(saved);
     }
 
     // Delete
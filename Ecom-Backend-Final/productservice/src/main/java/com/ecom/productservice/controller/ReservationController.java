@@ -0,0 +1,82 @@
+package com.ecom.productservice.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecom.productservice.dto.ReservationRequest;
+import com.ecom.productservice.kafka.ProductEventProducer;
+import com.ecom.productservice.models.StockReservation;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.services.ReservationResult;
+import com.ecom.productservice.services.ReservationService;
+
+// Stock holds for carts and checkout: reserve, then confirm at checkout or release when the item is dropped
+@RestController
+@RequestMapping("/products/reservations")
+public class ReservationController {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductEventProducer productEventProducer;
+
+    @PostMapping
+    public ResponseEntity<?> reserve(@RequestBody ReservationRequest request) {
+        if (request.getProductId() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+            return ResponseEntity.badRequest().body("productId and a positive quantity are required");
+        }
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null;
+        ReservationResult result = reservationService.reserve(request.getProductId(), request.getQuantity(), ttl);
+        return switch (result.outcome()) {
+            case RESERVED -> ResponseEntity.status(HttpStatus.CREATED).body(result.reservation());
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case UNSUPPORTED -> ResponseEntity.unprocessableEntity().body("Product cannot be reserved");
+            default -> ResponseEntity.status(HttpStatus.CONFLICT).body("Insufficient stock");
+        };
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable String id) {
+        ReservationResult result = reservationService.confirm(id);
+        return switch (result.outcome()) {
+            case CONFIRMED -> {
+                StockReservation reservation = result.reservation();
+                productRepository.findById(reservation.getProductId()).ifPresent(product ->
+                        // Publish Kafka event
+                        productEventProducer.publishProductStockReduced(
+                            product.getId(),
+                            product.getName(),
+                            product.getCategory(),
+                            product.getQuantity()
+                        ));
+                yield ResponseEntity.ok(reservation);
+            }
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case NOT_HELD -> ResponseEntity.status(HttpStatus.CONFLICT).body("Reservation expired or released");
+            default -> ResponseEntity.status(HttpStatus.CONFLICT).body("Insufficient stock");
+        };
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> release(@PathVariable String id) {
+        ReservationResult result = reservationService.release(id);
+        return switch (result.outcome()) {
+            case RELEASED, ALREADY_ENDED -> ResponseEntity.noContent().build();
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            default -> ResponseEntity.status(HttpStatus.CONFLICT).body("Reservation already confirmed");
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecom.productservice.dto;
+
+import java.util.List;
+
+/** One page of the product listing; pass {@code nextCursor} back as {@code cursor} for the next, null at the end. */
+public record ProductPage(List<ProductSummary> items, String nextCursor) {
+}
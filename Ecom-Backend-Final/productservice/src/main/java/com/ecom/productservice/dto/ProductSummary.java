@@ -0,0 +1,9 @@
+package com.ecom.productservice.dto;
+
+/** Listing row for GET /products: no description, stock reduced to a flag. */
+public record ProductSummary(Long id, String name, Double price, String category, Boolean inStock) {
+
+    public ProductSummary withInStock(boolean inStock) {
+        return new ProductSummary(id, name, price, category, inStock);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecom.productservice.dto;
+
+import lombok.Data;
+
+@Data
+public class ReservationRequest {
+    private Long productId;
+    private Integer quantity;
+    // Optional; defaults to inventory.reservations.default-ttl
+    private Long ttlSeconds;
+}
@@ -0,0 +1,217 @@
+package com.ecom.productservice.kafka;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.ProcessedEventRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.services.HotSkuStock;
+import com.ecom.productservice.services.StockDecrement;
+
+/**
+ * Batch mode of the ORDER_PLACED listener (inventory.order-events.batch-listener, on by default). A poll's worth
+ * of orders is applied in one transaction: duplicates are found with one IN query, quantities are summed per
+ * product and taken off with one conditional update per product, and the processed-event rows are inserted as a
+ * single JDBC batch. When a product cannot cover its summed quantity, its orders fall back to one update each, in
+ * arrival order, so the result matches what the per-record listener would have done.
+ * <p>
+ * Malformed records are logged and skipped. Orders for a hot product whose writer is busy are left out of the
+ * batch; the rest is committed and a {@link BatchListenerFailedException} names the first of them, so the
+ * container commits the offsets before it and redelivers from there (already applied orders after it are then
+ * skipped as duplicates). Retries and the dead-letter topic are configured in KafkaConsumerConfig.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.order-events.batch-listener", havingValue = "true", matchIfMissing = true)
+public class OrderEventBatchConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventBatchConsumer.class);
+    private static final int LOW_STOCK_THRESHOLD = 5;
+    private static final String INSERT_PROCESSED_EVENT =
+            "INSERT INTO processed_events (event_id, event_type, processed_at) VALUES (?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final InventoryEventProducer inventoryEventProducer;
+    private final JdbcTemplate jdbcTemplate;
+    private final HotSkuStock hotSkuStock;
+
+    public OrderEventBatchConsumer(ProductRepository productRepository,
+            ProcessedEventRepository processedEventRepository,
+            InventoryEventProducer inventoryEventProducer,
+            JdbcTemplate jdbcTemplate,
+            HotSkuStock hotSkuStock) {
+        this.productRepository = productRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.inventoryEventProducer = inventoryEventProducer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.hotSkuStock = hotSkuStock;
+    }
+
+    @KafkaListener(topics = "ORDER_PLACED", groupId = "inventory-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${inventory.order-events.max-poll-records:500}")
+    @Transactional(noRollbackFor = BatchListenerFailedException.class)
+    public void consumeOrderPlacedBatch(List<Map<String, Object>> events) {
+        List<OrderPlaced> orders = parse(events);
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        // Orders without an eventId cannot be deduplicated and are always applied, as in the per-record listener
+        Set<String> eventIds = new HashSet<>();
+        orders.forEach(order -> {
+            if (order.eventId() != null) {
+                eventIds.add(order.eventId());
+            }
+        });
+        Set<String> processed = eventIds.isEmpty() ? Set.of()
+                : new HashSet<>(processedEventRepository.findExistingEventIds(eventIds));
+        Set<String> seen = new HashSet<>();
+        // Sorted by product id so concurrent batches lock rows in the same order and cannot deadlock
+        Map<Long, List<OrderPlaced>> byProduct = new TreeMap<>();
+        for (OrderPlaced order : orders) {
+            if (order.eventId() != null && (processed.contains(order.eventId()) || !seen.add(order.eventId()))) {
+                log.info("Duplicate ORDER_PLACED event detected: {}. Skipping.", order.eventId());
+                continue;
+            }
+            byProduct.computeIfAbsent(order.productId(), id -> new ArrayList<>()).add(order);
+        }
+
+        List<OrderPlaced> applied = new ArrayList<>();
+        List<OrderPlaced> deferred = new ArrayList<>();
+        for (Map.Entry<Long, List<OrderPlaced>> entry : byProduct.entrySet()) {
+            applied.addAll(decrement(entry.getKey(), entry.getValue(), deferred));
+        }
+        if (!applied.isEmpty()) {
+            recordApplied(applied, events.size());
+        }
+        if (!deferred.isEmpty()) {
+            OrderPlaced first = deferred.stream().min(Comparator.comparingInt(OrderPlaced::index)).orElseThrow();
+            throw new BatchListenerFailedException("Stock writer busy for productId " + first.productId(),
+                    first.index());
+        }
+    }
+
+    // Low-stock alerts and processed-event rows for the orders that were applied
+    private void recordApplied(List<OrderPlaced> applied, int received) {
+        Set<Long> touched = new HashSet<>();
+        applied.forEach(order -> touched.add(order.productId()));
+        for (Product product : productRepository.findAllById(touched)) {
+            // MySQL lags a hot product's confirmed stock until the next flush
+            int stock = hotSkuStock.isHot(product.getId())
+                    ? hotSkuStock.available(product.getId())
+                    : product.getQuantity();
+            if (stock < LOW_STOCK_THRESHOLD) {
+                log.warn("LOW STOCK ALERT: productId={}, name={}, stock={}",
+                        product.getId(), product.getName(), stock);
+                inventoryEventProducer.publishLowStockAlert(
+                        product.getId(), product.getName(), stock, LOW_STOCK_THRESHOLD);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        applied.forEach(order -> {
+            if (order.eventId() != null) {
+                rows.add(new Object[]{order.eventId(), "ORDER_PLACED", now});
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_PROCESSED_EVENT, rows);
+        log.info("Applied {} of {} ORDER_PLACED events across {} products", applied.size(), received,
+                touched.size());
+    }
+
+    // Returns the orders that were applied; orders that must be redelivered are added to deferred
+    private List<OrderPlaced> decrement(Long productId, List<OrderPlaced> orders, List<OrderPlaced> deferred) {
+        if (hotSkuStock.isHot(productId)) {
+            return decrementHot(productId, orders, deferred);
+        }
+        int total = orders.stream().mapToInt(OrderPlaced::quantity).sum();
+        if (productRepository.decrementStock(productId, total) == 1) {
+            return orders;
+        }
+        if (orders.size() == 1 || !productRepository.existsById(productId)) {
+            log.error("Could not reduce stock for productId: {} by {} (missing or insufficient stock)",
+                    productId, total);
+            return List.of();
+        }
+        List<OrderPlaced> applied = new ArrayList<>();
+        for (OrderPlaced order : orders) {
+            if (productRepository.decrementStock(productId, order.quantity()) == 1) {
+                applied.add(order);
+            } else {
+                log.error("Insufficient stock for productId: {}. Requested: {}, eventId: {}",
+                        productId, order.quantity(), order.eventId());
+            }
+        }
+        return applied;
+    }
+
+    // A hot product's writer answers each order from memory; a rollback of this batch hands the stock back
+    private List<OrderPlaced> decrementHot(Long productId, List<OrderPlaced> orders, List<OrderPlaced> deferred) {
+        List<OrderPlaced> applied = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            OrderPlaced order = orders.get(i);
+            StockDecrement result = hotSkuStock.decrement(productId, order.quantity());
+            if (result.outcome() == StockDecrement.Outcome.BUSY) {
+                // Keep the product's arrival order: this order and the ones after it wait for redelivery
+                log.warn("Stock writer busy for productId: {}, deferring {} orders", productId, orders.size() - i);
+                deferred.addAll(orders.subList(i, orders.size()));
+                break;
+            }
+            if (result.succeeded()) {
+                applied.add(order);
+            } else {
+                log.error("Insufficient stock for productId: {}. Requested: {}, eventId: {}",
+                        productId, order.quantity(), order.eventId());
+            }
+        }
+        return applied;
+    }
+
+    private static List<OrderPlaced> parse(List<Map<String, Object>> events) {
+        List<OrderPlaced> orders = new ArrayList<>(events.size());
+        for (int index = 0; index < events.size(); index++) {
+            Map<String, Object> event = events.get(index);
+            if (event == null) {
+                log.warn("Skipping ORDER_PLACED record that could not be deserialized");
+                continue;
+            }
+            Object eventId = event.get("eventId");
+            try {
+                Object productId = event.get("productId");
+                int quantity = event.get("quantity") != null ? Integer.parseInt(event.get("quantity").toString()) : 0;
+                if (productId == null || quantity <= 0) {
+                    log.warn("ORDER_PLACED event without productId or positive quantity, skipping. eventId: {}",
+                            eventId);
+                    continue;
+                }
+                orders.add(new OrderPlaced(index, (String) eventId, Long.valueOf(productId.toString()), quantity));
+            } catch (NumberFormatException | ClassCastException e) {
+                log.warn("Skipping malformed ORDER_PLACED event {}: {}", eventId, e.getMessage());
+            }
+        }
+        return orders;
+    }
+
+    // index is the record's position in the poll, which BatchListenerFailedException reports
+    private record OrderPlaced(int index, String eventId, Long productId, int quantity) {
+    }
+}
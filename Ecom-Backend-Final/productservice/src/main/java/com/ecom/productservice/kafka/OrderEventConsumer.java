@@ -2,10 +2,10 @@ package com.ecom.productservice.kafka;
 
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,22 +13,25 @@ import org.springframework.transaction.annotation.Transactional;
 import com.ecom.productservice.models.ProcessedEvent;
 import com.ecom.productservice.models.Product;
 import com.ecom.productservice.repositories.ProcessedEventRepository;
-import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.services.StockDecrement;
+import com.ecom.productservice.services.StockService;
 
+// Per-record ORDER_PLACED listener, used when the batch listener is switched off
 @Service
+@ConditionalOnProperty(name = "inventory.order-events.batch-listener", havingValue = "false")
 public class OrderEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventConsumer.class);
     private static final int LOW_STOCK_THRESHOLD = 5;
 
-    private final ProductRepository productRepository;
+    private final StockService stockService;
     private final InventoryEventProducer inventoryEventProducer;
     private final ProcessedEventRepository processedEventRepository;
 
-    public OrderEventConsumer(ProductRepository productRepository,
+    public OrderEventConsumer(StockService stockService,
             InventoryEventProducer inventoryEventProducer,
             ProcessedEventRepository processedEventRepository) {
-        this.productRepository = productRepository;
+        this.stockService = stockService;
         this.inventoryEventProducer = inventoryEventProducer;
         this.processedEventRepository = processedEventRepository;
     }
@@ -56,24 +59,27 @@ public class OrderEventConsumer {
             return;
         }
 
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
-            log.error("Product not found for productId: {} in ORDER_PLACED event: {}", productId, eventId);
+        if (quantity <= 0) {
+            log.warn("ORDER_PLACED event with non-positive quantity {}, skipping. eventId: {}", quantity, eventId);
             return;
         }
 
-        Product product = productOpt.get();
-        int currentStock = product.getQuantity();
-
-        if (currentStock < quantity) {
-            log.error("Insufficient stock for productId: {}. Available: {}, Requested: {}",
-                    productId, currentStock, quantity);
+        // Check and reduce in one conditional update so concurrent orders cannot oversell
+        StockDecrement result = stockService.decrement(productId, quantity);
+        if (result.outcome() == StockDecrement.Outcome.BUSY) {
+            // Roll back and let the container redeliver the event
+            throw new IllegalStateException("Stock writer busy for productId " + productId);
+        }
+        if (result.outcome() == StockDecrement.Outcome.NOT_FOUND) {
+            log.error("Product not found for productId: {} in ORDER_PLACED event: {}", productId, eventId);
+            return;
+        }
+        if (!result.succeeded()) {
+            log.error("Insufficient stock for productId: {}. Requested: {}", productId, quantity);
             return;
         }
 
-        // Reduce stock transactionally
-        product.setQuantity(currentStock - quantity);
-        productRepository.save(product);
+        Product product = result.product();
         log.info("Stock reduced for productId: {}. New stock: {}", productId, product.getQuantity());
 
         // Check if stock is low -> publish alert
@@ -0,0 +1,23 @@
+package com.ecom.productservice.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Last hot-SKU journal sequence applied to products.quantity, written in the same transaction as the stock
+@Entity
+@Table(name = "hot_sku_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotSkuCheckpoint {
+    @Id
+    private Long productId;
+    private Long lastSequence;
+    private LocalDateTime flushedAt;
+}
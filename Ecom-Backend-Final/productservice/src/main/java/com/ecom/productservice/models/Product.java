@@ -1,5 +1,9 @@
 package com.ecom.productservice.models;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,7 +11,11 @@ import lombok.*;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+// Each listing sort column is indexed together with id, the tie-breaker of its keyset cursor
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 public class Product {
     public Long getId() {
 		return id;
@@ -45,6 +53,12 @@ public class Product {
 	public void setCategory(String category) {
 		this.category = category;
 	}
+	public Integer getReservedQuantity() {
+		return reservedQuantity;
+	}
+	public void setReservedQuantity(Integer reservedQuantity) {
+		this.reservedQuantity = reservedQuantity;
+	}
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -54,4 +68,10 @@ public class Product {
     private Double price;
     private Integer quantity;
     private String category;
+
+    // Units held by open reservations; only quantity - reservedQuantity can be sold or reserved
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer reservedQuantity = 0;
 }
@@ -0,0 +1,44 @@
+package com.ecom.productservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hold on stock taken by a cart or checkout. While HELD its quantity is counted in the product's
+ * reservedQuantity; confirming turns it into a sale, releasing or expiring gives the units back.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expiresAt"),
+        @Index(name = "idx_stock_reservations_product", columnList = "productId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    public enum Status { HELD, CONFIRMED, RELEASED, EXPIRED }
+
+    @Id
+    private String id;
+    @Column(nullable = false)
+    private Long productId;
+    @Column(nullable = false)
+    private Integer quantity;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
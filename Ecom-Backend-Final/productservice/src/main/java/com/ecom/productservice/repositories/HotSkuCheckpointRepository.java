@@ -0,0 +1,10 @@
+package com.ecom.productservice.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ecom.productservice.models.HotSkuCheckpoint;
+
+@Repository
+public interface HotSkuCheckpointRepository extends JpaRepository<HotSkuCheckpoint, Long> {
+}
@@ -1,10 +1,19 @@
 package com.ecom.productservice.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecom.productservice.models.ProcessedEvent;
 
 @Repository
 public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    /** The subset of {@code eventIds} already processed, in one IN query. */
+    @Query("SELECT e.eventId FROM ProcessedEvent e WHERE e.eventId IN :eventIds")
+    List<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
 }
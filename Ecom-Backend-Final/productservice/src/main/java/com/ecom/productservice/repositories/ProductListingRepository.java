@@ -0,0 +1,17 @@
+package com.ecom.productservice.repositories;
+
+import java.util.List;
+
+import com.ecom.productservice.dto.ProductSummary;
+import com.ecom.productservice.services.ProductCursor;
+import com.ecom.productservice.services.ProductSort;
+
+/** Keyset-paginated product listing, mixed into {@link ProductRepository}. */
+public interface ProductListingRepository {
+
+    /**
+     * Up to {@code limit} rows after {@code after} (from the start when null) in {@code sort} order, ties broken by
+     * id. Rows are selected straight into {@link ProductSummary}, so no entity is loaded or managed.
+     */
+    List<ProductSummary> findSummaries(ProductSort sort, boolean descending, ProductCursor after, int limit);
+}
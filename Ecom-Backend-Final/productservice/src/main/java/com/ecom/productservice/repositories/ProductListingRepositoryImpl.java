@@ -0,0 +1,63 @@
+package com.ecom.productservice.repositories;
+
+import java.util.List;
+
+import com.ecom.productservice.dto.ProductSummary;
+import com.ecom.productservice.services.ProductCursor;
+import com.ecom.productservice.services.ProductSort;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class ProductListingRepositoryImpl implements ProductListingRepository {
+
+    private static final String SELECT = "SELECT new com.ecom.productservice.dto.ProductSummary("
+            + "p.id, p.name, p.price, p.category, "
+            + "CASE WHEN p.quantity - p.reservedQuantity > 0 THEN true ELSE false END) FROM Product p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findSummaries(ProductSort sort, boolean descending, ProductCursor after, int limit) {
+        String column = "p." + sort.property();
+        String direction = descending ? " DESC" : " ASC";
+        StringBuilder jpql = new StringBuilder(SELECT);
+        if (after != null) {
+            jpql.append(" WHERE ").append(seek(sort, column, descending, after.value() == null));
+        }
+        jpql.append(" ORDER BY ");
+        if (sort != ProductSort.ID) {
+            jpql.append(column).append(direction).append(", ");
+        }
+        jpql.append("p.id").append(direction);
+
+        TypedQuery<ProductSummary> query = entityManager.createQuery(jpql.toString(), ProductSummary.class)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("id", after.id());
+            if (sort != ProductSort.ID && after.value() != null) {
+                query.setParameter("value", after.value());
+            }
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Rows strictly after the cursor. MySQL orders NULLs before every value ascending and after them descending,
+     * so a NULL sort value gets its own branch instead of a COALESCE that would stop the index from being used.
+     */
+    private static String seek(ProductSort sort, String column, boolean descending, boolean nullValue) {
+        String cmp = descending ? " < " : " > ";
+        if (sort == ProductSort.ID) {
+            return "p.id" + cmp + ":id";
+        }
+        if (nullValue) {
+            String tie = "(" + column + " IS NULL AND p.id" + cmp + ":id)";
+            return descending ? tie : "(" + tie + " OR " + column + " IS NOT NULL)";
+        }
+        String seek = "(" + column + cmp + ":value OR (" + column + " = :value AND p.id" + cmp + ":id))";
+        return descending ? "(" + seek + " OR " + column + " IS NULL)" : seek;
+    }
+}
@@ -3,14 +3,82 @@ package com.ecom.productservice.repositories;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ecom.productservice.models.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductListingRepository {
 
 	List<Product> findByCategory(String category);
 	
 	@Query("SELECT p.category, COUNT(p) FROM Product p GROUP BY p.category")
 	List<Object[]> countProductsByCategory();
+
+	/**
+	 * Writes only the catalogue fields an edit supplied (null leaves a column as it is), so it cannot undo stock
+	 * changes or holds that committed after the caller read the product. A new quantity must still cover the units
+	 * held by reservations. Returns the number of rows updated: 0 when the product is missing or the quantity is
+	 * too low.
+	 */
+	@Transactional
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.name = COALESCE(:name, p.name), "
+			+ "p.description = COALESCE(:description, p.description), p.price = COALESCE(:price, p.price), "
+			+ "p.quantity = COALESCE(:quantity, p.quantity), p.category = COALESCE(:category, p.category) "
+			+ "WHERE p.id = :id AND COALESCE(:quantity, p.quantity) >= p.reservedQuantity")
+	int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("description") String description,
+			@Param("price") Double price, @Param("quantity") Integer quantity, @Param("category") String category);
+
+	/**
+	 * Takes {@code quantity} off the stock only if that much is left beyond open reservations. Returns the number
+	 * of rows updated: 0 when the product is missing or short. Clears the persistence context so a following read
+	 * sees the new stock.
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :quantity "
+			+ "WHERE p.id = :id AND p.quantity - p.reservedQuantity >= :quantity")
+	int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+	/**
+	 * Applies a net stock change already checked elsewhere (hot-SKU group commits), as long as it leaves the stock
+	 * non-negative. Returns the number of rows updated: 0 when the product is missing or the change would take the
+	 * stock below zero, which means someone other than the hot-SKU writer changed it.
+	 */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :delta WHERE p.id = :id AND p.quantity - :delta >= 0")
+	int subtractStock(@Param("id") Long id, @Param("delta") int delta);
+
+	/** Holds {@code quantity} units if that much is unreserved. */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity "
+			+ "WHERE p.id = :id AND p.quantity - p.reservedQuantity >= :quantity")
+	int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+	/** Turns a hold into a sale: the units leave both the stock and the reserved count. */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, "
+			+ "p.reservedQuantity = p.reservedQuantity - :quantity "
+			+ "WHERE p.id = :id AND p.reservedQuantity >= :quantity AND p.quantity >= :quantity")
+	int commitReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+	/** Returns held units to sellable stock. */
+	@Modifying(clearAutomatically = true, flushAutomatically = true)
+	@Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity "
+			+ "WHERE p.id = :id AND p.reservedQuantity >= :quantity")
+	int releaseReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+	/**
+	 * Resets reserved_quantity to the sum of the product's open reservations wherever the two have drifted apart.
+	 * Returns the number of products corrected.
+	 */
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE products p SET reserved_quantity = (SELECT COALESCE(SUM(r.quantity), 0) "
+			+ "FROM stock_reservations r WHERE r.product_id = p.id AND r.status = 'HELD') "
+			+ "WHERE p.reserved_quantity <> (SELECT COALESCE(SUM(r.quantity), 0) "
+			+ "FROM stock_reservations r WHERE r.product_id = p.id AND r.status = 'HELD')", nativeQuery = true)
+	int reconcileReservedQuantities();
 }
@@ -0,0 +1,32 @@
+package com.ecom.productservice.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecom.productservice.models.StockReservation;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Moves a reservation from {@code from} to {@code to}; 0 if it was not in {@code from}. Only one caller can win
+     * the move out of HELD, so confirm, release and expiry never apply the same hold twice.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") StockReservation.Status from,
+                   @Param("to") StockReservation.Status to);
+
+    List<StockReservation> findByStatus(StockReservation.Status status);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :cutoff")
+    List<String> findIdsByStatusAndExpiresAtBefore(@Param("status") StockReservation.Status status,
+                                                   @Param("cutoff") LocalDateTime cutoff);
+}
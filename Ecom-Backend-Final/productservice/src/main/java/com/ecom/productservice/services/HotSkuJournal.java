@@ -0,0 +1,73 @@
+package com.ecom.productservice.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of the stock changes a hot product's writer has confirmed but not yet flushed to MySQL, one
+ * "sequence delta" line per group. Truncated after every successful flush, so it stays a few lines long.
+ */
+final class HotSkuJournal implements Closeable {
+
+    record Entry(long sequence, int delta) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean fsync;
+
+    HotSkuJournal(Path directory, long productId, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        this.path = directory.resolve("sku-" + productId + ".journal");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.fsync = fsync;
+    }
+
+    // A torn last line from a crash mid-write was never confirmed to anyone, so it is skipped
+    List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 2) {
+                continue;
+            }
+            try {
+                entries.add(new Entry(Long.parseLong(parts[0]), Integer.parseInt(parts[1])));
+            } catch (NumberFormatException e) {
+                // torn write
+            }
+        }
+        return entries;
+    }
+
+    void append(long sequence, int delta) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((sequence + " " + delta + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    void truncate() throws IOException {
+        channel.truncate(0);
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
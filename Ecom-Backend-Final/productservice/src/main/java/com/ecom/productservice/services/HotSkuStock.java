@@ -0,0 +1,538 @@
+package com.ecom.productservice.services;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.models.HotSkuCheckpoint;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.HotSkuCheckpointRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Opt-in stock handling for products that take more decrements than one MySQL row lock can serialize
+ * (inventory.hot-sku.product-ids). Each such product gets one writer thread that owns its stock counter: callers
+ * queue their decrement and are confirmed or rejected as soon as the writer reaches it, and the writer folds
+ * everything it confirmed since the last flush into one UPDATE every inventory.hot-sku.flush-interval.
+ * <p>
+ * Crash recovery: before confirming a group of commands the writer appends its net change to a per-product
+ * journal (fsync'd by default). Each flush stores the journal sequence it covers in hot_sku_checkpoints within the
+ * same transaction as the stock update, so on startup exactly the journal entries past the checkpoint are
+ * replayed. MySQL's quantity lags the confirmed stock by at most one flush interval while running.
+ * <p>
+ * Decrements made inside a transaction are handed back if that transaction rolls back, so a failed Kafka batch
+ * does not keep the stock it took. A crash between confirming and committing such a transaction leaves the
+ * decrement applied and the event redelivered, which under-counts stock rather than overselling it.
+ * <p>
+ * The counter lives in this JVM, so exactly one productservice instance may list a product in hot-SKU mode. A flush
+ * that would take products.quantity below zero is refused and retried, which is how a second writer shows up.
+ */
+@Component
+public class HotSkuStock implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuStock.class);
+
+    private final HotSkuProperties properties;
+    private final ProductRepository productRepository;
+    private final HotSkuCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, SkuWriter> writers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public HotSkuStock(HotSkuProperties properties,
+                       ProductRepository productRepository,
+                       HotSkuCheckpointRepository checkpointRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isHot(Long productId) {
+        return productId != null && writers.containsKey(productId);
+    }
+
+    /**
+     * Sellable (unreserved) stock of a hot product, ahead of MySQL by whatever has not been flushed yet. Hot products
+     * take no new reservations, so this only shrinks by sales until the next restock.
+     */
+    public int available(Long productId) {
+        return writer(productId).available;
+    }
+
+    public StockDecrement decrement(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        StockDecrement result = writer(productId).submit(Command.decrement(quantity));
+        if (result.succeeded() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        release(productId, quantity);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /** Returns stock taken by an earlier decrement. Never turned away, since dropping it would leak stock. */
+    public void release(Long productId, int quantity) {
+        writer(productId).submitUninterruptibly(Command.release(quantity));
+    }
+
+    /**
+     * Runs {@code action} on the product's writer after flushing it, with no decrement in between, and reloads the
+     * stock from MySQL afterwards. For changes that write products.quantity directly, such as a restock.
+     */
+    public <T> T runExclusive(Long productId, Supplier<T> action) {
+        Command command = Command.exclusive(action);
+        writer(productId).submitUninterruptibly(command);
+        @SuppressWarnings("unchecked")
+        T value = (T) command.future.join().value;
+        return value;
+    }
+
+    @Override
+    public void start() {
+        for (Long productId : properties.getProductIds()) {
+            try {
+                SkuWriter writer = recover(productId);
+                if (writer != null) {
+                    writer.start();
+                    writers.put(productId, writer);
+                    log.info("Hot-SKU mode on for productId: {} with stock {}", productId, writer.available);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open hot-SKU journal for productId " + productId, e);
+            }
+        }
+        running = true;
+    }
+
+    // Flushes everything confirmed so far; runs after the web server and Kafka listeners have stopped
+    @Override
+    public void stop() {
+        running = false;
+        writers.values().forEach(SkuWriter::stop);
+        writers.values().forEach(SkuWriter::awaitStopped);
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before (and so stop after) the web server and the Kafka listener containers
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private SkuWriter writer(Long productId) {
+        SkuWriter writer = writers.get(productId);
+        if (writer == null) {
+            throw new IllegalStateException("productId " + productId + " is not in hot-SKU mode");
+        }
+        return writer;
+    }
+
+    private SkuWriter recover(Long productId) throws IOException {
+        HotSkuJournal journal = new HotSkuJournal(properties.getJournalDir(), productId, properties.isFsync());
+        long checkpoint = checkpointRepository.findById(productId)
+                .map(HotSkuCheckpoint::getLastSequence)
+                .orElse(0L);
+        long sequence = checkpoint;
+        int unflushed = 0;
+        for (HotSkuJournal.Entry entry : journal.readAll()) {
+            if (entry.sequence() > checkpoint) {
+                unflushed += entry.delta();
+            }
+            sequence = Math.max(sequence, entry.sequence());
+        }
+        if (sequence > checkpoint) {
+            int delta = unflushed;
+            long lastSequence = sequence;
+            transactionTemplate.executeWithoutResult(status -> {
+                subtractStock(productId, delta);
+                checkpointRepository.save(new HotSkuCheckpoint(productId, lastSequence, LocalDateTime.now()));
+            });
+            log.warn("Replayed unflushed hot-SKU journal for productId: {} (net change -{}, up to sequence {})",
+                    productId, delta, lastSequence);
+        }
+        journal.truncate();
+
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            log.warn("Hot-SKU productId: {} does not exist, leaving it out", productId);
+            journal.close();
+            return null;
+        }
+        return new SkuWriter(product, journal, sequence);
+    }
+
+    private void subtractStock(Long productId, int delta) {
+        if (productRepository.subtractStock(productId, delta) == 0) {
+            throw new IllegalStateException("Hot-SKU change of -" + delta + " would take productId " + productId
+                    + " below zero; is it in hot-SKU mode on more than one instance?");
+        }
+    }
+
+    private static final class Command {
+
+        enum Kind { DECREMENT, RELEASE, EXCLUSIVE }
+
+        final Kind kind;
+        final int quantity;
+        final Supplier<?> action;
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        private Command(Kind kind, int quantity, Supplier<?> action) {
+            this.kind = kind;
+            this.quantity = quantity;
+            this.action = action;
+        }
+
+        static Command decrement(int quantity) {
+            return new Command(Kind.DECREMENT, quantity, null);
+        }
+
+        static Command release(int quantity) {
+            return new Command(Kind.RELEASE, quantity, null);
+        }
+
+        static Command exclusive(Supplier<?> action) {
+            return new Command(Kind.EXCLUSIVE, 0, action);
+        }
+    }
+
+    private record Result(StockDecrement decrement, Object value) {
+    }
+
+    /** Owns one product's counter. Every field below is only written by its thread. */
+    private final class SkuWriter implements Runnable {
+
+        private final Long productId;
+        private final BlockingQueue<Command> queue;
+        private final HotSkuJournal journal;
+        private final Thread thread;
+        private final Timer flushLag;
+        private final Counter confirmed;
+        private final Counter rejected;
+        private final Counter busy;
+        private volatile Product snapshot;
+        private volatile int available;
+        // Net units confirmed but not yet in MySQL, and when the oldest of them was confirmed
+        private volatile int pending;
+        // Units released (negative) and already sellable again whose journal write failed; retried with the next group
+        private int unjournaled;
+        private long oldestPendingNanos;
+        private long sequence;
+        private volatile boolean stopping;
+
+        SkuWriter(Product product, HotSkuJournal journal, long sequence) {
+            this.productId = product.getId();
+            this.snapshot = product;
+            this.available = product.getQuantity() - product.getReservedQuantity();
+            this.journal = journal;
+            this.sequence = sequence;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.thread = new Thread(this, "hot-sku-" + productId);
+            this.thread.setDaemon(true);
+
+            String productTag = productId.toString();
+            Gauge.builder("inventory.hot-sku.queue.depth", queue, BlockingQueue::size)
+                    .description("Stock commands waiting for a hot product's writer")
+                    .tag("product", productTag)
+                    .register(meterRegistry);
+            Gauge.builder("inventory.hot-sku.pending", this, writer -> writer.pending)
+                    .description("Units confirmed but not yet flushed to MySQL")
+                    .tag("product", productTag)
+                    .register(meterRegistry);
+            this.flushLag = Timer.builder("inventory.hot-sku.flush.lag")
+                    .description("Age of the oldest confirmed change when it reached MySQL")
+                    .tag("product", productTag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.confirmed = decrements(productTag, "confirmed");
+            this.rejected = decrements(productTag, "insufficient-stock");
+            this.busy = decrements(productTag, "busy");
+        }
+
+        private Counter decrements(String productTag, String result) {
+            return Counter.builder("inventory.hot-sku.decrements")
+                    .tag("product", productTag)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            stopping = true;
+        }
+
+        void awaitStopped() {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        StockDecrement submit(Command command) {
+            try {
+                if (stopping || !queue.offer(command, properties.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                    busy.increment();
+                    return new StockDecrement(StockDecrement.Outcome.BUSY, null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new StockDecrement(StockDecrement.Outcome.BUSY, null);
+            }
+            // Once queued the command is always answered; giving up here could hide a confirmed decrement
+            return command.future.join().decrement;
+        }
+
+        void submitUninterruptibly(Command command) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    queue.put(command);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            long flushIntervalNanos = properties.getFlushInterval().toNanos();
+            long nextFlush = System.nanoTime() + flushIntervalNanos;
+            List<Command> batch = new ArrayList<>(properties.getMaxBatch());
+            while (true) {
+                Command first;
+                try {
+                    first = stopping ? queue.poll()
+                            : queue.poll(Math.max(0, nextFlush - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    stopping = true;
+                    continue;
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getMaxBatch() - 1);
+                    apply(batch);
+                    batch.clear();
+                } else if (stopping) {
+                    break;
+                }
+                if (System.nanoTime() - nextFlush >= 0) {
+                    flush();
+                    nextFlush = System.nanoTime() + flushIntervalNanos;
+                }
+            }
+            flush();
+            if (unjournaled != 0) {
+                log.error("Hot-SKU writer for productId: {} stopped with {} released units never journaled; "
+                        + "add them back to products.quantity by hand", productId, -unjournaled);
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Could not close hot-SKU journal for productId: {}", productId, e);
+            }
+        }
+
+        private void apply(List<Command> batch) {
+            List<Command> group = new ArrayList<>(batch.size());
+            List<StockDecrement> outcomes = new ArrayList<>(batch.size());
+            int groupDelta = 0;
+            for (Command command : batch) {
+                try {
+                    switch (command.kind) {
+                        case DECREMENT -> {
+                            if (available >= command.quantity) {
+                                available -= command.quantity;
+                                groupDelta += command.quantity;
+                                outcomes.add(new StockDecrement(StockDecrement.Outcome.DECREMENTED,
+                                        withQuantity(available)));
+                            } else {
+                                outcomes.add(new StockDecrement(StockDecrement.Outcome.INSUFFICIENT_STOCK, null));
+                            }
+                            group.add(command);
+                        }
+                        case RELEASE -> {
+                            available += command.quantity;
+                            groupDelta -= command.quantity;
+                            outcomes.add(null);
+                            group.add(command);
+                        }
+                        case EXCLUSIVE -> {
+                            commit(group, outcomes, groupDelta);
+                            group.clear();
+                            outcomes.clear();
+                            groupDelta = 0;
+                            runExclusive(command);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    command.future.completeExceptionally(e);
+                }
+            }
+            commit(group, outcomes, groupDelta);
+        }
+
+        // Journals the group's net change, then answers its callers
+        private void commit(List<Command> group, List<StockDecrement> outcomes, int groupDelta) {
+            if (group.isEmpty() && unjournaled == 0) {
+                return;
+            }
+            int delta = groupDelta + unjournaled;
+            if (delta != 0) {
+                try {
+                    journal.append(sequence + 1, delta);
+                    sequence++;
+                    if (pending == 0) {
+                        oldestPendingNanos = System.nanoTime();
+                    }
+                    pending += delta;
+                    unjournaled = 0;
+                } catch (IOException e) {
+                    turnAway(group, outcomes, e);
+                    return;
+                }
+            } else {
+                unjournaled = 0;
+            }
+            for (int i = 0; i < group.size(); i++) {
+                StockDecrement outcome = outcomes.get(i);
+                if (outcome != null) {
+                    (outcome.succeeded() ? confirmed : rejected).increment();
+                }
+                group.get(i).future.complete(new Result(outcome, null));
+            }
+        }
+
+        /**
+         * The group could not be journaled: its decrements are undone and answered BUSY. Its releases must not be
+         * lost, so they stay applied and are carried into the next group's journal entry instead.
+         */
+        private void turnAway(List<Command> group, List<StockDecrement> outcomes, IOException cause) {
+            int released = 0;
+            for (int i = 0; i < group.size(); i++) {
+                Command command = group.get(i);
+                if (command.kind == Command.Kind.RELEASE) {
+                    released += command.quantity;
+                    command.future.complete(new Result(null, null));
+                    continue;
+                }
+                StockDecrement outcome = outcomes.get(i);
+                if (outcome.succeeded()) {
+                    available += command.quantity;
+                }
+                busy.increment();
+                command.future.complete(new Result(new StockDecrement(StockDecrement.Outcome.BUSY, null), null));
+            }
+            unjournaled -= released;
+            log.error("Could not journal hot-SKU changes for productId: {}, turning decrements away and keeping "
+                    + "{} released units ({} in total) for the next group", productId, released, -unjournaled, cause);
+        }
+
+        private void runExclusive(Command command) {
+            commit(List.of(), List.of(), 0);
+            if (!flush()) {
+                command.future.completeExceptionally(
+                        new IllegalStateException("Could not flush hot-SKU productId " + productId));
+                return;
+            }
+            Object value;
+            try {
+                value = command.action.get();
+            } finally {
+                productRepository.findById(productId).ifPresent(product -> {
+                    snapshot = product;
+                    // Releases still waiting for the journal are not in MySQL yet
+                    available = product.getQuantity() - product.getReservedQuantity() - unjournaled;
+                });
+            }
+            command.future.complete(new Result(null, value));
+        }
+
+        // Group commit: everything confirmed since the last flush, as one UPDATE plus the checkpoint
+        private boolean flush() {
+            commit(List.of(), List.of(), 0);
+            if (pending == 0) {
+                return true;
+            }
+            int delta = pending;
+            long lastSequence = sequence;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    subtractStock(productId, delta);
+                    checkpointRepository.save(new HotSkuCheckpoint(productId, lastSequence, LocalDateTime.now()));
+                });
+            } catch (IllegalStateException e) {
+                log.error("Hot-SKU flush for productId: {} refused, retrying next interval: {}",
+                        productId, e.getMessage());
+                return false;
+            } catch (RuntimeException e) {
+                log.warn("Hot-SKU flush for productId: {} failed, retrying next interval: {}",
+                        productId, e.getMessage());
+                return false;
+            }
+            flushLag.record(System.nanoTime() - oldestPendingNanos, TimeUnit.NANOSECONDS);
+            pending = 0;
+            try {
+                // Entries up to the checkpoint would be skipped on replay anyway, so a failure here is harmless
+                journal.truncate();
+            } catch (IOException e) {
+                log.warn("Could not truncate hot-SKU journal for productId: {}", productId, e);
+            }
+            return true;
+        }
+
+        // Units held by reservations made before the product turned hot are not part of the counter
+        private Product withQuantity(int quantity) {
+            Product current = snapshot;
+            return new Product(current.getId(), current.getName(), current.getDescription(), current.getPrice(),
+                    quantity + current.getReservedQuantity(), current.getCategory(), current.getReservedQuantity());
+        }
+    }
+}
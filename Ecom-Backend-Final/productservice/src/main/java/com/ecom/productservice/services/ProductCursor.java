@@ -0,0 +1,41 @@
+package com.ecom.productservice.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the product listing: the sort value and id of the last row returned. A null {@code value} means the
+ * last row had no value in the sort column. Encoded as opaque base64url text so clients do not build their own.
+ */
+public record ProductCursor(ProductSort sort, boolean descending, Object value, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        // sort:direction|id[|value]; the value goes last so it may contain the separator
+        String text = sort.property() + (descending ? ":desc" : ":asc") + "|" + id
+                + (value == null ? "" : "|" + value);
+        return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException if the cursor is malformed or was issued for a different ordering */
+    public static ProductCursor decode(String cursor, ProductSort sort, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String ordering = sort.property() + (descending ? ":desc" : ":asc");
+        if (parts.length < 2 || !parts[0].equals(ordering)) {
+            throw new IllegalArgumentException("Cursor does not belong to sort " + ordering.replace(':', ','));
+        }
+        try {
+            return new ProductCursor(sort, descending, parts.length == 3 ? sort.parse(parts[2]) : null,
+                    Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecom.productservice.services;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecom.productservice.dto.ProductPage;
+import com.ecom.productservice.dto.ProductSummary;
+import com.ecom.productservice.repositories.ProductRepository;
+
+/**
+ * Pages through the catalog with a keyset cursor: each page seeks past the last row of the previous one, so a deep
+ * page costs the same as the first and rows inserted meanwhile do not shift what the client sees.
+ */
+@Service
+public class ProductListing {
+
+    private final ProductRepository productRepository;
+    private final HotSkuStock hotSkuStock;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ProductListing(ProductRepository productRepository,
+                          HotSkuStock hotSkuStock,
+                          @Value("${products.listing.default-page-size:20}") int defaultPageSize,
+                          @Value("${products.listing.max-page-size:100}") int maxPageSize) {
+        this.productRepository = productRepository;
+        this.hotSkuStock = hotSkuStock;
+        this.defaultPageSize = Math.min(defaultPageSize, maxPageSize);
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @param limit  page size; null for products.listing.default-page-size, capped at products.listing.max-page-size
+     * @param cursor {@link ProductPage#nextCursor()} of the previous page, null for the first
+     * @param sort   {@code property[,asc|desc]} with property one of {@link ProductSort}; null sorts by id
+     * @throws IllegalArgumentException on an unknown sort, a bad limit, or a cursor issued for another sort
+     */
+    @Transactional(readOnly = true)
+    public ProductPage page(Integer limit, String cursor, String sort) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        int size = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+        ProductSort by = ProductSort.ID;
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            by = ProductSort.fromParameter(parts[0].trim());
+            if (parts.length == 2) {
+                String direction = parts[1].trim().toLowerCase(Locale.ROOT);
+                if (!direction.equals("asc") && !direction.equals("desc")) {
+                    throw new IllegalArgumentException("Unknown sort direction " + parts[1]);
+                }
+                descending = direction.equals("desc");
+            }
+        }
+        ProductCursor after = cursor == null || cursor.isBlank() ? null
+                : ProductCursor.decode(cursor, by, descending);
+
+        // One row past the page tells whether there is a next page without a COUNT
+        List<ProductSummary> rows = productRepository.findSummaries(by, descending, after, size + 1);
+        boolean more = rows.size() > size;
+        List<ProductSummary> items = rows.subList(0, Math.min(size, rows.size())).stream()
+                .map(this::withLiveStock)
+                .toList();
+        String nextCursor = null;
+        if (more) {
+            ProductSummary last = items.get(items.size() - 1);
+            nextCursor = new ProductCursor(by, descending, by.valueOf(last), last.id()).encode();
+        }
+        return new ProductPage(items, nextCursor);
+    }
+
+    // A hot product's stock in MySQL trails its writer by up to one flush
+    private ProductSummary withLiveStock(ProductSummary summary) {
+        return hotSkuStock.isHot(summary.id()) ? summary.withInStock(hotSkuStock.available(summary.id()) > 0)
+                : summary;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.dto.ProductSummary;
+
+/**
+ * Columns the product listing can be ordered by. Each is backed by an index ending in id, which also breaks ties,
+ * so every page is an index range scan no matter how deep the cursor is.
+ */
+public enum ProductSort {
+
+    ID("id"),
+    PRICE("price"),
+    NAME("name");
+
+    private final String property;
+
+    ProductSort(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /** The sort value of a row, as stored in a cursor. */
+    Object valueOf(ProductSummary summary) {
+        return switch (this) {
+            case ID -> summary.id();
+            case PRICE -> summary.price();
+            case NAME -> summary.name();
+        };
+    }
+
+    Object parse(String value) {
+        return switch (this) {
+            case ID -> Long.valueOf(value);
+            case PRICE -> Double.valueOf(value);
+            case NAME -> value;
+        };
+    }
+
+    static ProductSort fromParameter(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort products by " + value);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecom.productservice.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecom.productservice.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expires reservation holds on time from {@link ReservationService}'s delay queue, and periodically reconciles
+ * what the queue cannot see: holds past their expiry that no instance expired (e.g. across a restart) are
+ * released, and any product whose reservedQuantity no longer matches its open holds is corrected.
+ */
+@Component
+public class ReservationExpiry implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpiry.class);
+
+    private final ReservationService reservationService;
+    private final ProductRepository productRepository;
+    private final Duration reconcileGrace;
+    private final Counter expired;
+    private final Counter reconciledHolds;
+    private final Counter reconciledProducts;
+    private volatile Thread worker;
+
+    public ReservationExpiry(ReservationService reservationService,
+                             ProductRepository productRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.reservations.reconcile-grace:1m}") Duration reconcileGrace) {
+        this.reservationService = reservationService;
+        this.productRepository = productRepository;
+        this.reconcileGrace = reconcileGrace;
+        this.expired = meterRegistry.counter("inventory.reservations.expired", "source", "delay-queue");
+        this.reconciledHolds = meterRegistry.counter("inventory.reservations.expired", "source", "reconciliation");
+        this.reconciledProducts = meterRegistry.counter("inventory.reservations.reconciled-products");
+    }
+
+    @Override
+    public void start() {
+        int open = reservationService.scheduleOpenReservations();
+        log.info("Scheduled expiry of {} open reservations", open);
+        Thread thread = new Thread(this::drain, "reservation-expiry");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void drain() {
+        while (worker == Thread.currentThread()) {
+            String reservationId;
+            try {
+                reservationId = reservationService.takeExpired();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (reservationService.expire(reservationId).outcome() == ReservationResult.Outcome.RELEASED) {
+                    expired.increment();
+                }
+            } catch (RuntimeException e) {
+                // The reconciliation job retries it
+                log.warn("Could not expire reservation {}: {}", reservationId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.reconcile-interval:5m}",
+            initialDelayString = "${inventory.reservations.reconcile-interval:5m}")
+    public void reconcile() {
+        List<String> overdue = reservationService.findOverdue(reconcileGrace);
+        for (String reservationId : overdue) {
+            if (reservationService.expire(reservationId).outcome() == ReservationResult.Outcome.RELEASED) {
+                reconciledHolds.increment();
+            }
+        }
+        int corrected = productRepository.reconcileReservedQuantities();
+        reconciledProducts.increment(corrected);
+        if (!overdue.isEmpty() || corrected > 0) {
+            log.warn("Reservation reconciliation released {} overdue holds and corrected {} products",
+                    overdue.size(), corrected);
+        }
+    }
+}
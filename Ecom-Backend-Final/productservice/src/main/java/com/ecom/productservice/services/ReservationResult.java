@@ -0,0 +1,18 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.models.StockReservation;
+
+/**
+ * Outcome of a {@link ReservationService} call. NOT_HELD means the reservation is no longer held, so it cannot be
+ * confirmed or released; ALREADY_ENDED means a release or expiry found the hold already released or expired and
+ * changed nothing. UNSUPPORTED means the product is in hot-SKU mode, which sells straight from its in-memory counter.
+ */
+public record ReservationResult(Outcome outcome, StockReservation reservation) {
+
+    public enum Outcome { RESERVED, CONFIRMED, RELEASED, ALREADY_ENDED, INSUFFICIENT_STOCK, NOT_FOUND, NOT_HELD,
+        UNSUPPORTED }
+
+    static ReservationResult of(Outcome outcome) {
+        return new ReservationResult(outcome, null);
+    }
+}
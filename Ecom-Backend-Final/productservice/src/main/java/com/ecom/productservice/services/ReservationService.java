@@ -0,0 +1,194 @@
+package com.ecom.productservice.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.ecom.productservice.models.StockReservation;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.repositories.StockReservationRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reserve, confirm and release stock holds. A hold moves units from sellable stock (quantity - reservedQuantity)
+ * into reservedQuantity; confirming takes them out of quantity for good, releasing hands them back. Every step is
+ * a conditional update, so concurrent carts cannot reserve more than is on hand.
+ * <p>
+ * Open holds wait for their expiry in an in-memory delay queue, drained by {@link ReservationExpiry}, so expiring
+ * them never scans the table. Holds this instance does not know about (taken before a restart or by another
+ * instance) are caught by the reconciliation job.
+ */
+@Service
+public class ReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final HotSkuStock hotSkuStock;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final DelayQueue<PendingExpiry> expiries = new DelayQueue<>();
+    private final MeterRegistry meterRegistry;
+
+    public ReservationService(StockReservationRepository reservationRepository,
+                              ProductRepository productRepository,
+                              HotSkuStock hotSkuStock,
+                              MeterRegistry meterRegistry,
+                              @Value("${inventory.reservations.default-ttl:15m}") Duration defaultTtl,
+                              @Value("${inventory.reservations.max-ttl:2h}") Duration maxTtl) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.hotSkuStock = hotSkuStock;
+        this.meterRegistry = meterRegistry;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        Gauge.builder("inventory.reservations.scheduled-expiries", expiries, DelayQueue::size)
+                .description("Open holds waiting for their expiry on this instance")
+                .register(meterRegistry);
+    }
+
+    /** @param ttl how long to hold the units; null for the default, capped at inventory.reservations.max-ttl */
+    @Transactional
+    public ReservationResult reserve(Long productId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        if (hotSkuStock.isHot(productId)) {
+            return count(ReservationResult.of(ReservationResult.Outcome.UNSUPPORTED));
+        }
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            return count(ReservationResult.of(productRepository.existsById(productId)
+                    ? ReservationResult.Outcome.INSUFFICIENT_STOCK
+                    : ReservationResult.Outcome.NOT_FOUND));
+        }
+        Duration holdFor = ttl == null || ttl.isNegative() || ttl.isZero() ? defaultTtl
+                : ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = reservationRepository.save(new StockReservation(UUID.randomUUID().toString(),
+                productId, quantity, StockReservation.Status.HELD, now.plus(holdFor), now));
+        // If this transaction rolls back the expiry finds no HELD row and does nothing
+        schedule(reservation);
+        return count(new ReservationResult(ReservationResult.Outcome.RESERVED, reservation));
+    }
+
+    @Transactional
+    public ReservationResult confirm(String reservationId) {
+        StockReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null) {
+            return count(ReservationResult.of(ReservationResult.Outcome.NOT_FOUND));
+        }
+        if (reservationRepository.transition(reservationId, StockReservation.Status.HELD,
+                StockReservation.Status.CONFIRMED) == 0) {
+            // Repeating a confirm is harmless; confirming a released or expired hold is not
+            return count(reservation.getStatus() == StockReservation.Status.CONFIRMED
+                    ? new ReservationResult(ReservationResult.Outcome.CONFIRMED, reservation)
+                    : ReservationResult.of(ReservationResult.Outcome.NOT_HELD));
+        }
+        Long productId = reservation.getProductId();
+        int quantity = reservation.getQuantity();
+        if (productRepository.commitReservedStock(productId, quantity) == 0
+                && productRepository.decrementStock(productId, quantity) == 0) {
+            // reservedQuantity drifted below this hold and there is no free stock to cover it either
+            log.error("Cannot confirm reservation {}: productId {} no longer has {} units", reservationId,
+                    productId, quantity);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return count(ReservationResult.of(ReservationResult.Outcome.INSUFFICIENT_STOCK));
+        }
+        reservation.setStatus(StockReservation.Status.CONFIRMED);
+        return count(new ReservationResult(ReservationResult.Outcome.CONFIRMED, reservation));
+    }
+
+    @Transactional
+    public ReservationResult release(String reservationId) {
+        return end(reservationId, StockReservation.Status.RELEASED);
+    }
+
+    /** Called by the expiry worker and the reconciliation job. */
+    @Transactional
+    public ReservationResult expire(String reservationId) {
+        return end(reservationId, StockReservation.Status.EXPIRED);
+    }
+
+    // Releasing twice, or after expiry, is a no-op and reports ALREADY_ENDED so only real releases are counted
+    private ReservationResult end(String reservationId, StockReservation.Status to) {
+        StockReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null) {
+            return count(ReservationResult.of(ReservationResult.Outcome.NOT_FOUND));
+        }
+        if (reservationRepository.transition(reservationId, StockReservation.Status.HELD, to) == 0) {
+            return count(reservation.getStatus() == StockReservation.Status.CONFIRMED
+                    ? ReservationResult.of(ReservationResult.Outcome.NOT_HELD)
+                    : new ReservationResult(ReservationResult.Outcome.ALREADY_ENDED, reservation));
+        }
+        if (productRepository.releaseReservedStock(reservation.getProductId(), reservation.getQuantity()) == 0) {
+            log.warn("reservedQuantity of productId {} was already below reservation {}; reconciliation will fix it",
+                    reservation.getProductId(), reservationId);
+        }
+        reservation.setStatus(to);
+        return count(new ReservationResult(ReservationResult.Outcome.RELEASED, reservation));
+    }
+
+    /** Loads every open hold into the delay queue; run once at startup. */
+    @Transactional(readOnly = true)
+    public int scheduleOpenReservations() {
+        List<StockReservation> open = reservationRepository.findByStatus(StockReservation.Status.HELD);
+        open.forEach(this::schedule);
+        return open.size();
+    }
+
+    /** Blocks until the next scheduled hold expires and returns its id. */
+    String takeExpired() throws InterruptedException {
+        return expiries.take().reservationId;
+    }
+
+    List<String> findOverdue(Duration grace) {
+        return reservationRepository.findIdsByStatusAndExpiresAtBefore(StockReservation.Status.HELD,
+                LocalDateTime.now().minus(grace));
+    }
+
+    private void schedule(StockReservation reservation) {
+        long delayNanos = Duration.between(LocalDateTime.now(), reservation.getExpiresAt()).toNanos();
+        expiries.add(new PendingExpiry(reservation.getId(), System.nanoTime() + delayNanos));
+    }
+
+    private ReservationResult count(ReservationResult result) {
+        meterRegistry.counter("inventory.reservations", "outcome", result.outcome().name().toLowerCase())
+                .increment();
+        return result;
+    }
+
+    private static final class PendingExpiry implements Delayed {
+
+        private final String reservationId;
+        private final long expiresAtNanos;
+
+        PendingExpiry(String reservationId, long expiresAtNanos) {
+            this.reservationId = reservationId;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtNanos, ((PendingExpiry) other).expiresAtNanos);
+        }
+    }
+}
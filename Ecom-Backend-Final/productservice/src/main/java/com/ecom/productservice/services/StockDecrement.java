@@ -0,0 +1,16 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.models.Product;
+
+/**
+ * Outcome of {@link StockService#decrement}. {@code product} is the row as it stands after a successful decrement,
+ * and null otherwise. BUSY means a hot product's queue was full and nothing was changed; the caller may retry.
+ */
+public record StockDecrement(Outcome outcome, Product product) {
+
+    public enum Outcome { DECREMENTED, INSUFFICIENT_STOCK, NOT_FOUND, BUSY }
+
+    public boolean succeeded() {
+        return outcome == Outcome.DECREMENTED;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecom.productservice.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.ProductRepository;
+
+/**
+ * Stock decrements as one conditional UPDATE, so the check and the write happen under the row lock MySQL takes for
+ * the statement: concurrent orders for the same product serialize on that lock and can never oversell. The
+ * product is read back afterwards in the same transaction, while the lock is still held, to report the new stock.
+ * Products in hot-SKU mode are decremented by their {@link HotSkuStock} writer instead.
+ */
+@Service
+public class StockService {
+
+    private final ProductRepository productRepository;
+    private final HotSkuStock hotSkuStock;
+
+    public StockService(ProductRepository productRepository, HotSkuStock hotSkuStock) {
+        this.productRepository = productRepository;
+        this.hotSkuStock = hotSkuStock;
+    }
+
+    @Transactional
+    public StockDecrement decrement(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        if (hotSkuStock.isHot(productId)) {
+            return hotSkuStock.decrement(productId, quantity);
+        }
+        if (productRepository.decrementStock(productId, quantity) == 0) {
+            // Only the failure path pays for telling "no such product" from "not enough stock"
+            return new StockDecrement(productRepository.existsById(productId)
+                    ? StockDecrement.Outcome.INSUFFICIENT_STOCK
+                    : StockDecrement.Outcome.NOT_FOUND, null);
+        }
+        Product product = productRepository.findById(productId).orElseThrow();
+        return new StockDecrement(StockDecrement.Outcome.DECREMENTED, product);
+    }
+}
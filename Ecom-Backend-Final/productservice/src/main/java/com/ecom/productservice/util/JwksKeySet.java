@@ -0,0 +1,154 @@
+package com.ecom.productservice.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.BlockingLoadBalancerInterceptor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * authservice's token verification keys, fetched from its JWKS endpoint (resolved through discovery) and refreshed
+ * on a schedule. A token with an unknown key id refreshes the set inline, at most once per
+ * jwt.jwks.min-refresh-interval. A key that drops out of the JWKS keeps verifying for jwt.jwks.retired-key-ttl.
+ */
+@Component
+public class JwksKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeySet.class);
+
+    private final RestClient restClient;
+    private final String jwksUri;
+    private final long minRefreshIntervalMillis;
+    private final long retiredKeyTtlMillis;
+    private final AtomicLong lastRefreshStartedAt = new AtomicLong();
+    private volatile Map<String, KnownKey> keysById = Map.of();
+
+    public JwksKeySet(RestClient.Builder restClientBuilder,
+                      BlockingLoadBalancerInterceptor loadBalancer,
+                      @Value("${jwt.jwks.uri:http://AUTHSERVICE/.well-known/jwks.json}") String jwksUri,
+                      @Value("${jwt.jwks.timeout:2s}") Duration timeout,
+                      @Value("${jwt.jwks.min-refresh-interval:30s}") Duration minRefreshInterval,
+                      @Value("${jwt.jwks.retired-key-ttl:15m}") Duration retiredKeyTtl) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.clone()
+                .requestFactory(requestFactory)
+                .requestInterceptor(loadBalancer)
+                .build();
+        this.jwksUri = jwksUri;
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+        this.retiredKeyTtlMillis = retiredKeyTtl.toMillis();
+    }
+
+    /** The key for {@code keyId}, or null if it is still unknown after a (rate-limited) refresh. */
+    public PublicKey getKey(String keyId) {
+        if (keyId == null) {
+            return null;
+        }
+        KnownKey key = keysById.get(keyId);
+        if (key == null) {
+            long last = lastRefreshStartedAt.get();
+            if (System.currentTimeMillis() - last >= minRefreshIntervalMillis
+                    && lastRefreshStartedAt.compareAndSet(last, System.currentTimeMillis())) {
+                load();
+                key = keysById.get(keyId);
+            }
+        }
+        return key != null ? key.key() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.jwks.refresh-interval:5m}")
+    public void refresh() {
+        lastRefreshStartedAt.set(System.currentTimeMillis());
+        load();
+    }
+
+    private void load() {
+        try {
+            JsonNode jwks = restClient.get().uri(jwksUri).retrieve().body(JsonNode.class);
+            update(jwks != null ? parse(jwks) : Map.of(), System.currentTimeMillis());
+        } catch (RestClientException e) {
+            log.warn("Could not refresh JWKS from {}: {}", jwksUri, e.getMessage());
+        }
+    }
+
+    // Merges rather than replaces: a kid missing from the response is kept until retiredKeyTtl after it was last
+    // published. An empty or unusable response therefore never drops every key at once.
+    private synchronized void update(Map<String, PublicKey> published, long now) {
+        Map<String, KnownKey> merged = new HashMap<>();
+        keysById.forEach((keyId, known) -> {
+            if (now - known.lastPublishedAt() < retiredKeyTtlMillis) {
+                merged.put(keyId, known);
+            }
+        });
+        published.forEach((keyId, key) -> merged.put(keyId, new KnownKey(key, now)));
+        keysById = Map.copyOf(merged);
+    }
+
+    /** Parses the P-256 signing keys of a JWK set (RFC 7517); other key types are skipped. */
+    static Map<String, PublicKey> parse(JsonNode jwks) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode jwk : jwks.path("keys")) {
+            String keyId = jwk.path("kid").asText(null);
+            if (keyId == null || !"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())
+                    || (jwk.has("use") && !"sig".equals(jwk.path("use").asText()))) {
+                continue;
+            }
+            try {
+                keys.put(keyId, ecPublicKey(jwk.path("x").asText(), jwk.path("y").asText()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping malformed JWK {}: {}", keyId, e.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private static PublicKey ecPublicKey(String x, String y) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec curve = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(new BigInteger(1, Base64.getUrlDecoder().decode(x)),
+                new BigInteger(1, Base64.getUrlDecoder().decode(y)));
+        if (!isOnCurve(point, curve)) {
+            throw new IllegalArgumentException("point is not on P-256");
+        }
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, curve));
+    }
+
+    // KeyFactory does not validate the point itself: y^2 = x^3 + ax + b (mod p)
+    private static boolean isOnCurve(ECPoint point, ECParameterSpec curve) {
+        BigInteger p = ((ECFieldFp) curve.getCurve().getField()).getP();
+        BigInteger x = point.getAffineX();
+        BigInteger y = point.getAffineY();
+        if (x.compareTo(p) >= 0 || y.compareTo(p) >= 0) {
+            return false;
+        }
+        BigInteger rhs = x.pow(3).add(curve.getCurve().getA().multiply(x)).add(curve.getCurve().getB()).mod(p);
+        return y.pow(2).mod(p).equals(rhs);
+    }
+
+    private record KnownKey(PublicKey key, long lastPublishedAt) {
+    }
+}
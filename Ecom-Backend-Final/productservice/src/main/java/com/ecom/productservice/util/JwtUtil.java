@@ -1,8 +1,13 @@
 package com.ecom.productservice.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -12,19 +17,50 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // The keys are resolved per token from its header and the parser is immutable and thread-safe, so it is shared
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    /**
+     * ES256 tokens are verified against authservice's published key set; HS256 tokens signed with the shared
+     * secret are accepted while {@code jwt.hs256.accept} is on, to cover tokens issued before the switch.
+     */
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   JwksKeySet jwksKeySet,
+                   @Value("${jwt.hs256.accept:true}") boolean acceptHs256) {
+        Key hmacKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String algorithm = header.getAlgorithm();
+                        if (SignatureAlgorithm.ES256.getValue().equals(algorithm)) {
+                            Key key = jwksKeySet.getKey(header.getKeyId());
+                            if (key != null) {
+                                return key;
+                            }
+                        } else if (SignatureAlgorithm.HS256.getValue().equals(algorithm) && acceptHs256) {
+                            return hmacKey;
+                        }
+                        throw new SignatureException("Unknown signing key " + header.getKeyId() + " for " + algorithm);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifies signature and expiry and parses the token once.
+     * Throws a JwtException if the token is invalid.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(extractClaims(token));
     }
 
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return verify(token).getSubject();
     }
 
     public String extractRoles(String token) {
-        return (String) extractClaims(token).get("roles");
+        return verify(token).getRoles();
     }
 
     public Date extractExpiration(String token) {
@@ -32,11 +68,7 @@ public class JwtUtil {
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean isTokenExpired(String token) {
@@ -0,0 +1,169 @@
+package com.ecom.productservice.kafka;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.HotSkuCheckpointRepository;
+import com.ecom.productservice.repositories.ProcessedEventRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.services.HotSkuStock;
+import com.ecom.productservice.services.StockDecrement;
+import com.ecom.productservice.services.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeds the same ORDER_PLACED stream (with redeliveries and one product that sells out) through the per-record
+ * and the batch listener and checks they end in the same state, and checks how a batch handles records it cannot
+ * apply.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderEventBatchConsumerTest {
+
+    private static final int PRODUCTS = 50;
+    private static final int EVENTS = 2000;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private HotSkuCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void batchListenerMatchesPerRecordListener() {
+        InventoryEventProducer producer = mock(InventoryEventProducer.class);
+        // No hot SKUs configured: both listeners go straight to MySQL
+        HotSkuStock hotSkuStock = new HotSkuStock(new HotSkuProperties(), productRepository,
+                checkpointRepository, transactionManager, new SimpleMeterRegistry());
+        OrderEventConsumer perRecord = new OrderEventConsumer(
+                new StockService(productRepository, hotSkuStock), producer, processedEventRepository);
+        OrderEventBatchConsumer batch = new OrderEventBatchConsumer(productRepository, processedEventRepository,
+                producer, new JdbcTemplate(dataSource), hotSkuStock);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Long> perRecordProducts = createProducts();
+        List<Long> batchProducts = createProducts();
+
+        for (Map<String, Object> event : events(perRecordProducts, "r-")) {
+            transaction.executeWithoutResult(status -> perRecord.consumeOrderPlaced(event));
+        }
+
+        List<Map<String, Object>> batchEvents = events(batchProducts, "b-");
+        for (int from = 0; from < batchEvents.size(); from += BATCH_SIZE) {
+            List<Map<String, Object>> poll = batchEvents.subList(from, Math.min(from + BATCH_SIZE, batchEvents.size()));
+            transaction.executeWithoutResult(status -> batch.consumeOrderPlacedBatch(poll));
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            assertEquals(productRepository.findById(perRecordProducts.get(i)).orElseThrow().getQuantity(),
+                    productRepository.findById(batchProducts.get(i)).orElseThrow().getQuantity());
+        }
+        long perRecordProcessed = processedEventRepository.findAll().stream()
+                .filter(e -> e.getEventId().startsWith("r-")).count();
+        long batchProcessed = processedEventRepository.findAll().stream()
+                .filter(e -> e.getEventId().startsWith("b-")).count();
+        assertEquals(perRecordProcessed, batchProcessed);
+    }
+
+    @Test
+    void malformedRecordsAreSkippedAndBusyHotProductIsRedeliveredFromItsFirstOrder() {
+        List<Long> products = createProducts();
+        Long cold = products.get(1);
+        Long hot = products.get(2);
+        HotSkuStock hotSkuStock = mock(HotSkuStock.class);
+        when(hotSkuStock.isHot(hot)).thenReturn(true);
+        when(hotSkuStock.decrement(eq(hot), anyInt()))
+                .thenReturn(new StockDecrement(StockDecrement.Outcome.BUSY, null));
+        // Proxied with the listener's own @Transactional, which commits what was applied when it reports a failure
+        ProxyFactory proxy = new ProxyFactory(new OrderEventBatchConsumer(productRepository,
+                processedEventRepository, mock(InventoryEventProducer.class), new JdbcTemplate(dataSource),
+                hotSkuStock));
+        proxy.setProxyTargetClass(true);
+        proxy.addAdvice(new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource()));
+        OrderEventBatchConsumer batch = (OrderEventBatchConsumer) proxy.getProxy();
+
+        List<Map<String, Object>> poll = List.of(
+                Map.of("eventId", "m-0", "productId", cold, "quantity", 2),
+                Map.of("eventId", "m-1", "productId", cold, "quantity", "two"),
+                Map.of("eventId", "m-2", "productId", hot, "quantity", 1),
+                Map.of("eventId", "m-3", "productId", cold, "quantity", 3));
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> batch.consumeOrderPlacedBatch(poll));
+
+        assertEquals(2, failure.getIndex());
+        assertEquals(100_000 - 5, productRepository.findById(cold).orElseThrow().getQuantity());
+        assertEquals(Set.of("m-0", "m-3"), new HashSet<>(processedEventRepository.findExistingEventIds(
+                Set.of("m-0", "m-1", "m-2", "m-3"))));
+    }
+
+    // The first product has little stock, so it sells out part-way through and the rest of its orders are rejected
+    private List<Long> createProducts() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("product " + i);
+            product.setPrice(10.0);
+            product.setCategory("test");
+            product.setQuantity(i == 0 ? 40 : 100_000);
+            ids.add(productRepository.save(product).getId());
+        }
+        return ids;
+    }
+
+    // Same sequence for both runs (fixed seed); about one event in ten is a redelivery of an earlier one
+    private static List<Map<String, Object>> events(List<Long> productIds, String prefix) {
+        Random random = new Random(42);
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            int id = i > 0 && random.nextInt(10) == 0 ? random.nextInt(i) : i;
+            Random eventRandom = new Random(id);
+            events.add(Map.of(
+                    "eventId", prefix + id,
+                    "productId", productIds.get(eventRandom.nextInt(PRODUCTS)),
+                    "quantity", 1 + eventRandom.nextInt(3)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.models.HotSkuCheckpoint;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.HotSkuCheckpointRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotSkuStockTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private HotSkuCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void neverOversellsAndFlushesEveryConfirmedUnit() throws Exception {
+        Long id = createProduct(500);
+        HotSkuStock stock = hotSkuStock(id);
+        stock.start();
+
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                    StockDecrement result = stock.decrement(id, quantity);
+                    if (result.succeeded()) {
+                        sold.addAndGet(quantity);
+                        assertTrue(result.product().getQuantity() >= 0);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        int available = stock.available(id);
+        stock.stop();
+
+        assertEquals(500, sold.get() + available);
+        assertTrue(available < 3);
+        assertEquals(available, productRepository.findById(id).orElseThrow().getQuantity());
+        assertEquals(0, Files.size(journalDir.resolve("sku-" + id + ".journal")));
+    }
+
+    @Test
+    void replaysJournalEntriesPastTheCheckpointOnStartup() throws Exception {
+        Long id = createProduct(100);
+        checkpointRepository.save(new HotSkuCheckpoint(id, 3L, LocalDateTime.now()));
+        // 2 and 3 were flushed before the crash, 4-6 were not, and the last line was torn mid-write
+        Files.writeString(journalDir.resolve("sku-" + id + ".journal"), "2 5\n3 5\n4 7\n5 1\n6 -2\n7 ");
+
+        HotSkuStock stock = hotSkuStock(id);
+        stock.start();
+        try {
+            assertEquals(94, stock.available(id));
+            assertEquals(94, productRepository.findById(id).orElseThrow().getQuantity());
+            assertEquals(6L, checkpointRepository.findById(id).orElseThrow().getLastSequence());
+        } finally {
+            stock.stop();
+        }
+    }
+
+    @Test
+    void handsStockBackWhenTheCallersTransactionRollsBack() throws Exception {
+        Long id = createProduct(10);
+        HotSkuStock stock = hotSkuStock(id);
+        stock.start();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                assertTrue(stock.decrement(id, 4).succeeded());
+                status.setRollbackOnly();
+            });
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (stock.available(id) != 10 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(10, stock.available(id));
+        } finally {
+            stock.stop();
+        }
+        assertEquals(10, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void refusesToFlushBelowZeroWhenSomeoneElseChangedTheStock() throws Exception {
+        Long id = createProduct(10);
+        HotSkuStock stock = hotSkuStock(id);
+        stock.start();
+        try {
+            // Another instance with the product in hot-SKU mode sells 5 of the 10 units behind this writer's back
+            productRepository.updateDetails(id, null, null, null, 5, null);
+            assertTrue(stock.decrement(id, 8).succeeded());
+            Thread.sleep(200);
+        } finally {
+            stock.stop();
+        }
+        assertEquals(5, productRepository.findById(id).orElseThrow().getQuantity());
+        assertTrue(checkpointRepository.findById(id).isEmpty());
+        // The confirmed decrement is still journaled, for an operator to reconcile
+        assertTrue(Files.size(journalDir.resolve("sku-" + id + ".journal")) > 0);
+    }
+
+    private HotSkuStock hotSkuStock(Long id) {
+        HotSkuProperties properties = new HotSkuProperties();
+        properties.setProductIds(Set.of(id));
+        properties.setJournalDir(journalDir);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        return new HotSkuStock(properties, productRepository, checkpointRepository, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    private Long createProduct(int quantity) {
+        Product product = new Product();
+        product.setName("flash sale item");
+        product.setPrice(10.0);
+        product.setCategory("test");
+        product.setQuantity(quantity);
+        return productRepository.save(product).getId();
+    }
+}
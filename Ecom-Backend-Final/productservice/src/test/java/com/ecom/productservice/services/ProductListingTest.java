@@ -0,0 +1,131 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.dto.ProductPage;
+import com.ecom.productservice.dto.ProductSummary;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ProductListing.class, HotSkuStock.class, HotSkuProperties.class, SimpleMeterRegistry.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "products.listing.max-page-size=50"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductListingTest {
+
+    @Autowired
+    private ProductListing productListing;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 97; i++) {
+            // Repeated prices and names exercise the id tie-breaker; every tenth product has neither
+            Double price = i % 10 == 0 ? null : (double) (i % 7);
+            String name = i % 10 == 0 ? null : "product|" + (i % 5);
+            products.add(new Product(null, name, "long description " + i, price, i % 3, "cat" + (i % 4), 0));
+        }
+        productRepository.saveAll(products);
+    }
+
+    @Test
+    void everySortVisitsEachProductOnceInOrder() {
+        List<Product> all = productRepository.findAll();
+        for (ProductSort sort : ProductSort.values()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                String sortParam = sort.property() + (descending ? ",desc" : ",asc");
+                List<Long> expected = all.stream()
+                        .sorted(order(sort, descending))
+                        .map(Product::getId)
+                        .toList();
+                List<Long> seen = new ArrayList<>();
+                String cursor = null;
+                do {
+                    ProductPage page = productListing.page(7, cursor, sortParam);
+                    assertTrue(page.items().size() <= 7);
+                    page.items().forEach(item -> seen.add(item.id()));
+                    cursor = page.nextCursor();
+                } while (cursor != null);
+                assertEquals(expected, seen, sortParam);
+            }
+        }
+    }
+
+    @Test
+    void summariesCarryStockFlagAndSkipEntityLoading() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductPage page = productListing.page(null, null, null);
+
+        assertEquals(20, page.items().size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        ProductSummary first = page.items().get(0);
+        Product product = productRepository.findById(first.id()).orElseThrow();
+        assertEquals(product.getQuantity() > 0, first.inStock());
+        assertEquals(product.getName(), first.name());
+    }
+
+    @Test
+    void pageSizeIsCappedAndBadInputRejected() {
+        ProductPage page = productListing.page(1000, null, "price");
+        assertEquals(50, page.items().size());
+        assertFalse(page.nextCursor() == null);
+
+        assertThrows(IllegalArgumentException.class, () -> productListing.page(10, null, "description"));
+        assertThrows(IllegalArgumentException.class, () -> productListing.page(0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> productListing.page(10, "%%%", null));
+        // A cursor only continues the ordering it was issued for
+        assertThrows(IllegalArgumentException.class,
+                () -> productListing.page(10, page.nextCursor(), "price,desc"));
+        ProductPage byName = productListing.page(50, null, "name");
+        assertEquals(47, productListing.page(50, byName.nextCursor(), "name").items().size());
+        assertNull(productListing.page(50, byName.nextCursor(), "name").nextCursor());
+    }
+
+    // MySQL's (and H2's) ordering: NULLs first ascending, last descending, ties by id
+    private static Comparator<Product> order(ProductSort sort, boolean descending) {
+        Comparator<Product> byValue = switch (sort) {
+            case ID -> Comparator.comparing(Product::getId);
+            case PRICE -> Comparator.comparing(Product::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case NAME -> Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+        };
+        Comparator<Product> ordering = byValue.thenComparing(Product::getId);
+        return descending ? ordering.reversed() : ordering;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.models.StockReservation;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.repositories.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({ReservationService.class, ReservationExpiry.class, StockService.class, HotSkuStock.class,
+        HotSkuProperties.class, SimpleMeterRegistry.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=32")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationExpiry reservationExpiry;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Test
+    void concurrentHoldsNeverExceedStock() throws Exception {
+        Long id = createProduct(100);
+        AtomicInteger held = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                    if (reservationService.reserve(id, quantity, null).outcome()
+                            == ReservationResult.Outcome.RESERVED) {
+                        held.addAndGet(quantity);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals(100, product.getQuantity());
+        assertEquals(held.get(), product.getReservedQuantity());
+        assertTrue(held.get() > 97 && held.get() <= 100);
+    }
+
+    @Test
+    void confirmSellsTheHeldUnitsOnceAndReleaseReturnsThem() {
+        Long id = createProduct(10);
+        StockReservation kept = reservationService.reserve(id, 4, null).reservation();
+        StockReservation dropped = reservationService.reserve(id, 3, null).reservation();
+        assertFalse(stockService.decrement(id, 4).succeeded(), "held units must not be sold to others");
+
+        assertEquals(ReservationResult.Outcome.CONFIRMED, reservationService.confirm(kept.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.CONFIRMED, reservationService.confirm(kept.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.NOT_HELD, reservationService.release(kept.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.RELEASED, reservationService.release(dropped.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.ALREADY_ENDED, reservationService.release(dropped.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.ALREADY_ENDED, reservationService.expire(dropped.getId()).outcome());
+        assertEquals(ReservationResult.Outcome.NOT_HELD, reservationService.confirm(dropped.getId()).outcome());
+
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals(6, product.getQuantity());
+        assertEquals(0, product.getReservedQuantity());
+    }
+
+    @Test
+    void expiresHoldsFromTheDelayQueue() throws Exception {
+        Long id = createProduct(5);
+        String reservationId = reservationService.reserve(id, 5, Duration.ofMillis(300)).reservation().getId();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (reservationRepository.findById(reservationId).orElseThrow().getStatus()
+                == StockReservation.Status.HELD && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(StockReservation.Status.EXPIRED,
+                reservationRepository.findById(reservationId).orElseThrow().getStatus());
+        assertEquals(0, productRepository.findById(id).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    void reconciliationReleasesLeakedHoldsAndFixesDrift() {
+        Long leakedId = createProduct(10);
+        Long driftedId = createProduct(10);
+        // A hold left behind by a crashed instance: never in this instance's delay queue
+        reservationRepository.save(new StockReservation(UUID.randomUUID().toString(), leakedId, 4,
+                StockReservation.Status.HELD, LocalDateTime.now().minusHours(1), LocalDateTime.now().minusHours(2)));
+        Product leaked = productRepository.findById(leakedId).orElseThrow();
+        leaked.setReservedQuantity(4);
+        productRepository.save(leaked);
+        Product drifted = productRepository.findById(driftedId).orElseThrow();
+        drifted.setReservedQuantity(7);
+        productRepository.save(drifted);
+
+        reservationExpiry.reconcile();
+
+        assertEquals(0, productRepository.findById(leakedId).orElseThrow().getReservedQuantity());
+        assertEquals(0, productRepository.findById(driftedId).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    void editingAProductKeepsHoldsAndSalesMadeSinceItWasRead() {
+        Long id = createProduct(100);
+        Product read = productRepository.findById(id).orElseThrow();
+        reservationService.reserve(id, 30, null);
+        stockService.decrement(id, 5);
+
+        read.setName("renamed");
+        assertEquals(1, productRepository.updateDetails(id, read.getName(), null, null, null, null));
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals("renamed", product.getName());
+        assertEquals(95, product.getQuantity());
+        assertEquals(30, product.getReservedQuantity());
+
+        // Stock cannot be set below what the reservations hold
+        assertEquals(0, productRepository.updateDetails(id, null, null, null, 20, null));
+        assertEquals(1, productRepository.updateDetails(id, null, null, null, 40, null));
+        assertEquals(40, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    private Long createProduct(int quantity) {
+        Product product = new Product();
+        product.setName("cart item");
+        product.setPrice(10.0);
+        product.setCategory("test");
+        product.setQuantity(quantity);
+        return productRepository.save(product).getId();
+    }
+}
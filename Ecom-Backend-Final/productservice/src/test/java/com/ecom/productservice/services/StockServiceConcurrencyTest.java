@@ -0,0 +1,97 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.config.HotSkuProperties;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({StockService.class, HotSkuStock.class, HotSkuProperties.class, SimpleMeterRegistry.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=32")
+// Each decrement must commit on its own thread, so the test itself runs outside a transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockServiceConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 500;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void neverOversellsUnderConcurrentDecrements() throws Exception {
+        Product product = new Product();
+        product.setName("hot item");
+        product.setPrice(10.0);
+        product.setCategory("test");
+        product.setQuantity(INITIAL_STOCK);
+        Long id = productRepository.save(product).getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                    StockDecrement result = stockService.decrement(id, quantity);
+                    if (result.succeeded()) {
+                        sold.addAndGet(quantity);
+                        assertTrue(result.product().getQuantity() >= 0);
+                    } else {
+                        assertEquals(StockDecrement.Outcome.INSUFFICIENT_STOCK, result.outcome());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        int remaining = productRepository.findById(id).orElseThrow().getQuantity();
+        assertTrue(remaining >= 0);
+        assertEquals(INITIAL_STOCK, sold.get() + remaining);
+        // Demand (~6400 units) far exceeds stock, so it must have sold out and turned the rest away
+        assertTrue(remaining < 3);
+        assertTrue(rejected.get() > 0);
+    }
+
+    @Test
+    void reportsMissingProduct() {
+        assertEquals(StockDecrement.Outcome.NOT_FOUND, stockService.decrement(Long.MAX_VALUE, 1).outcome());
+    }
+}